@@ -0,0 +1,78 @@
+package com.bdpay.dashboard.config;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.service.TransactionRollupService;
+
+@Configuration
+public class DataGeneratorConfig {
+
+    // Load production-sized synthetic data (data-generator.* in application.yml), e.g.
+    //   --spring.profiles.active=generate-data --data-generator.users=100000 --data-generator.seed=7
+    @Bean
+    @Profile("generate-data")
+    public CommandLineRunner generateData(DataSource dataSource, PasswordEncoder passwordEncoder,
+                                          TransactionRollupService transactionRollupService,
+                                          ObjectProvider<TransactionPartitionManager> partitionManager,
+                                          Environment environment) {
+        return args -> {
+            int users = environment.getProperty("data-generator.users", Integer.class, 1000);
+            int transactionsPerAccount = environment.getProperty("data-generator.transactions-per-account",
+                Integer.class, 250);
+            int batchSize = environment.getProperty("data-generator.batch-size", Integer.class, 200);
+            long seed = environment.getProperty("data-generator.seed", Long.class, 42L);
+            int historyDays = environment.getProperty("data-generator.history-days", Integer.class, 730);
+            String endDate = environment.getProperty("data-generator.end-date", "");
+            boolean rebuildRollups = environment.getProperty("data-generator.rebuild-rollups", Boolean.class, true);
+
+            // Every synthetic user shares one hash: BCrypt per row would dominate the load time
+            LocalDate lastDay = endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate);
+
+            String passwordHash = passwordEncoder.encode(environment.getProperty("data-generator.password",
+                "password123"));
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(dataSource, seed, transactionsPerAccount,
+                historyDays, lastDay,
+                environment.getProperty("data-generator.email-domain", "synthetic.bdpay.test"), passwordHash);
+
+            if (generator.alreadyGenerated()) {
+                System.out.println("Synthetic data for seed " + seed + " already exists; pick another seed");
+                return;
+            }
+
+            // Partitions first, so COPY routes rows straight to their month instead of the default partition
+            partitionManager.ifAvailable(manager -> manager.ensurePartitions(
+                YearMonth.from(lastDay.minusDays(historyDays)), YearMonth.from(lastDay)));
+
+            int accountTypes = AccountType.values().length;
+            long started = System.nanoTime();
+            long rows = 0;
+            for (int first = 0; first < users; first += batchSize) {
+                int count = Math.min(batchSize, users - first);
+                List<Long> userIds = generator.generateBatch(first, count);
+                rows += (long) count * (1 + accountTypes + (long) accountTypes * transactionsPerAccount);
+
+                if (rebuildRollups) {
+                    userIds.forEach(transactionRollupService::rebuildUserRollups);
+                }
+                double minutes = (System.nanoTime() - started) / 60e9;
+                System.out.println("Generated users " + (first + count) + "/" + users + ", " + rows + " rows ("
+                    + Math.round(rows / Math.max(minutes, 1e-9)) + " rows/min)");
+            }
+            System.out.println("Synthetic data complete: " + users + " users, " + rows + " rows in "
+                + Math.round((System.nanoTime() - started) / 1e9) + "s (seed " + seed + ")");
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.bdpay.dashboard.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Scheduling for the balance ledger's write-behind flush; only switched on with the ledger
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "ledger.enabled", havingValue = "true")
+public class LedgerConfig {
+}
@@ -0,0 +1,85 @@
+package com.bdpay.dashboard.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Times every call into a repository or an @Service bean:
+//   repository.method{repository, method, outcome}
+//   service.method{service, method, outcome}
+// Percentile histograms and SLO buckets for these timers come from
+// management.metrics.distribution.* in application.yml, so each environment chooses its own.
+// Calls a service makes to itself bypass the proxy and are not timed separately.
+@Aspect
+public class MethodTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    // Method -> component class -> timer for successful calls, so the hot path doesn't rebuild tags
+    private final Map<Method, Map<Class<?>, Timer>> successTimers = new ConcurrentHashMap<>();
+
+    // Repository proxy class -> the application interface it implements (e.g. TransactionRepository)
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+        + "&& !execution(* java.lang.Object.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        String repository = repositoryNames.computeIfAbsent(targetClass, MethodTimingAspect::repositoryName);
+        return time(joinPoint, "repository.method", "repository", repository, targetClass);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service com.bdpay.dashboard..*) && execution(public * *(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        return time(joinPoint, "service.method", "service", targetClass.getSimpleName(), targetClass);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, String componentTag, String component,
+                        Class<?> targetClass) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long started = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimers.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetClass, c -> timer(name, componentTag, component, method, "success"))
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(name, componentTag, component, method, e.getClass().getSimpleName())
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, String componentTag, String component, Method method, String outcome) {
+        return Timer.builder(name)
+            .tag(componentTag, component)
+            .tag("method", method.getName())
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    // Spring Data proxies implement the repository interface declared in this application
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> candidate : proxyClass.getInterfaces()) {
+            if (candidate.getName().startsWith("com.bdpay.dashboard.")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
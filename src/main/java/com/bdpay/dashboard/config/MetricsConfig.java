@@ -0,0 +1,41 @@
+package com.bdpay.dashboard.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Application-level instrumentation: method timers on repositories and services, and SQL
+// statements per request. Hibernate statistics, Hikari pool gauges and the per-endpoint HTTP
+// timers come from Boot's own meter binders; their histograms and SLOs are set under
+// management.metrics in application.yml. Switch this part off with metrics.instrumentation.enabled.
+@Configuration
+@ConditionalOnProperty(name = "metrics.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final QueryCountInspector queryCountInspector;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.queryCountInspector = new QueryCountInspector(meterRegistry);
+    }
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry) {
+        return new MethodTimingAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountInspector);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bdpay.dashboard.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+// Streams JFR jdk.VirtualThreadPinned events in-process. A virtual thread that blocks while
+// pinned (inside a synchronized block or a native frame) holds its carrier thread, which quietly
+// caps throughput at the carrier count. Each distinct pinning site is logged once with its stack.
+public class PinnedThreadMonitor {
+
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> pinningSites = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned")
+            .withThreshold(Duration.ofMillis(thresholdMs))
+            .withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+        System.out.println("Virtual thread pinning monitor started (threshold " + thresholdMs + "ms)");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    public int getDistinctSites() {
+        return pinningSites.size();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        String stack = describe(event.getStackTrace());
+        LongAdder count = pinningSites.computeIfAbsent(stack, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            System.out.println("WARNING: virtual thread pinned for " + event.getDuration().toMillis() + "ms:\n" + stack);
+        }
+    }
+
+    private String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            description.append("\tat ")
+                .append(frame.getMethod().getType().getName())
+                .append('.')
+                .append(frame.getMethod().getName())
+                .append(" line ")
+                .append(frame.getLineNumber())
+                .append('\n');
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.bdpay.dashboard.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Counts the SQL statements Hibernate prepares while a request is handled and records them per
+// endpoint as http.server.requests.queries{method, uri}. The counter is inheritable, so statements
+// run by the dashboard's per-section virtual threads count towards the request that started them.
+public class QueryCountInspector implements StatementInspector, AsyncHandlerInterceptor {
+
+    private static final InheritableThreadLocal<AtomicInteger> STATEMENTS = new InheritableThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountInspector(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.incrementAndGet();
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        STATEMENTS.set(new AtomicInteger());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        AtomicInteger statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        if (statements == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.queries")
+            .description("SQL statements executed per request")
+            .baseUnit("statements")
+            .tag("method", request.getMethod())
+            .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+            .register(meterRegistry)
+            .record(statements.get());
+    }
+
+    // Streams (live updates) hand the request off here and never reach afterCompletion on this thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        STATEMENTS.remove();
+    }
+}
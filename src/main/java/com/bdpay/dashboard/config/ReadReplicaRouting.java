@@ -0,0 +1,174 @@
+package com.bdpay.dashboard.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Decides whether a read-only transaction may use the replica. Reads stay on the primary for a
+// user who wrote within the read-your-writes window, for requests under the primary-only paths
+// (login and registration), inside onPrimary(...) and while the replica is lagging or unreachable.
+// The current user and the primary flag are plain thread locals: pooled threads created during a
+// request must not keep its state, so work handed to another thread carries it explicitly with
+// currentContext() and withContext(...).
+@Component
+public class ReadReplicaRouting implements AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    // How long a user's reads stay on the primary after they write
+    @Value("${datasource.replica.read-your-writes-window-ms:5000}")
+    private long readYourWritesWindowMs;
+
+    // Above this lag every read goes to the primary
+    @Value("${datasource.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replica.primary-only-paths:/auth/}")
+    private List<String> primaryOnlyPaths;
+
+    @Value("${datasource.replica.max-pinned-users:100000}")
+    private long maxPinnedUsers;
+
+    private Cache<Long, Boolean> pinnedUsers;
+
+    // -1 until the first successful check, or while the replica can't be reached
+    private volatile long replicaLagMs = -1;
+
+    @PostConstruct
+    void init() {
+        pinnedUsers = Caffeine.newBuilder()
+            .maximumSize(maxPinnedUsers)
+            .expireAfterWrite(Duration.ofMillis(readYourWritesWindowMs))
+            .build();
+    }
+
+    // True when the current read-only transaction may be served by the replica
+    public boolean replicaAllowed() {
+        if (Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            return false;
+        }
+        if (replicaLagMs < 0 || replicaLagMs > maxLagMs) {
+            return false;
+        }
+        Long userId = CURRENT_USER.get();
+        return userId == null || pinnedUsers.getIfPresent(userId) == null;
+    }
+
+    // Run a read on the primary, e.g. to refill a cache that must not see replica lag. Only
+    // affects transactions that have not used a connection yet.
+    public <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        }
+    }
+
+    // The calling thread's routing state, to hand to work it runs on other threads
+    public RoutingContext currentContext() {
+        return new RoutingContext(CURRENT_USER.get(), Boolean.TRUE.equals(PRIMARY_ONLY.get()));
+    }
+
+    // Run an action under a captured routing state, restoring this thread's own afterwards
+    public <T> T withContext(RoutingContext context, Supplier<T> action) {
+        Long previousUser = CURRENT_USER.get();
+        Boolean previousPrimaryOnly = PRIMARY_ONLY.get();
+        set(CURRENT_USER, context.userId());
+        set(PRIMARY_ONLY, context.primaryOnly() ? Boolean.TRUE : null);
+        try {
+            return action.get();
+        } finally {
+            set(CURRENT_USER, previousUser);
+            set(PRIMARY_ONLY, previousPrimaryOnly);
+        }
+    }
+
+    // Keep a user's reads on the primary for the read-your-writes window
+    public void pin(Long userId) {
+        if (userId != null) {
+            pinnedUsers.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void setReplicaLagMs(long lagMs) {
+        this.replicaLagMs = lagMs;
+    }
+
+    public long getReplicaLagMs() {
+        return replicaLagMs;
+    }
+
+    public long getPinnedUsers() {
+        return pinnedUsers.estimatedSize();
+    }
+
+    // The JWT filter has already put the caller's userId on the request
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = request.getAttribute("userId") instanceof Long id ? id : null;
+        CURRENT_USER.set(userId);
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (primaryOnlyPaths.stream().anyMatch(path::startsWith)) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        }
+        // A write request reads its own data on the primary from the start
+        if (isWrite(request)) {
+            pin(userId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        // Restart the window from the commit, not from the start of the request
+        if (isWrite(request)) {
+            pin(CURRENT_USER.get());
+        }
+        CURRENT_USER.remove();
+        PRIMARY_ONLY.remove();
+    }
+
+    // A live update stream goes async here: clear the routing state before Tomcat reuses the thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        CURRENT_USER.remove();
+        PRIMARY_ONLY.remove();
+    }
+
+    private static <T> void set(ThreadLocal<T> threadLocal, T value) {
+        if (value == null) {
+            threadLocal.remove();
+        } else {
+            threadLocal.set(value);
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    // Current user and primary-only flag of a request, as captured by currentContext()
+    public record RoutingContext(Long userId, boolean primaryOnly) {}
+}
@@ -0,0 +1,49 @@
+package com.bdpay.dashboard.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Samples how far the replica's replay is behind the primary. A replica that has replayed all
+// the WAL it received counts as 0 even if the last replayed commit is old (idle primary).
+public class ReplicaLagMonitor {
+
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+        "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replica;
+    private final ReadReplicaRouting routing;
+
+    public ReplicaLagMonitor(DataSource replicaPool, ReadReplicaRouting routing, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaPool);
+        this.replica.setQueryTimeout(5);
+        this.routing = routing;
+
+        Gauge.builder("datasource.replica.lag", routing, ReadReplicaRouting::getReplicaLagMs)
+            .baseUnit("milliseconds")
+            .description("Replica replay lag behind the primary (-1 when unreachable)")
+            .register(meterRegistry);
+        Gauge.builder("datasource.replica.pinned.users", routing, ReadReplicaRouting::getPinnedUsers)
+            .description("Users whose reads are held on the primary after a write")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        try {
+            Number lag = replica.queryForObject(LAG_QUERY, Number.class);
+            routing.setReplicaLagMs(lag != null ? lag.longValue() : 0);
+        } catch (RuntimeException e) {
+            if (routing.getReplicaLagMs() >= 0) {
+                System.out.println("Replica unreachable, reads fall back to the primary: " + e.getMessage());
+            }
+            routing.setReplicaLagMs(-1);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bdpay.dashboard.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Read replica mode: readOnly transactions go to datasource.replica.*, writes stay on
+// spring.datasource. Replaces Boot's single pool with a primary pool and a replica pool, each
+// behind its own concurrency limit, and samples replica lag for routing and metrics.
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                               ReadReplicaRouting routing, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primaryPool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryPool));
+        primaryPool.setPoolName("primary");
+
+        HikariDataSource replicaPool = new HikariDataSource();
+        replicaPool.setJdbcUrl(environment.getRequiredProperty("datasource.replica.url"));
+        replicaPool.setUsername(environment.getProperty("datasource.replica.username", properties.determineUsername()));
+        replicaPool.setPassword(environment.getProperty("datasource.replica.password", properties.determinePassword()));
+        replicaPool.setDriverClassName(properties.determineDriverClassName());
+        binder.bind("datasource.replica.hikari", Bindable.ofInstance(replicaPool));
+        replicaPool.setPoolName("replica");
+        replicaPool.setReadOnly(true);
+        // Boot only binds hikaricp.* gauges for the pool behind the DataSource bean (the primary)
+        replicaPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return new ReplicaRoutingDataSource(limit(primaryPool, environment), limit(replicaPool, environment),
+            primaryPool, replicaPool, routing, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource dataSource, ReadReplicaRouting routing,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(dataSource.getReplicaPool(), routing, meterRegistry);
+    }
+
+    // Same fair semaphore the single-pool setup gets, sized to each pool
+    private DataSource limit(HikariDataSource pool, Environment environment) {
+        if (!environment.getProperty("datasource.concurrency-limit.enabled", Boolean.class, true)) {
+            return pool;
+        }
+        long acquireTimeoutMs = environment.getProperty("datasource.concurrency-limit.acquire-timeout-ms",
+            Long.class, 30000L);
+        System.out.println("Limiting " + pool.getPoolName() + " pool to " + pool.getMaximumPoolSize()
+            + " concurrent connections");
+        return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), acquireTimeoutMs);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bdpay.dashboard.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Primary/replica DataSource. Connections are lazy: a readOnly transaction marks its connection
+// read-only before the first statement, and only then is a physical connection taken from the
+// replica pool (when ReadReplicaRouting allows it) or the primary pool. Everything else,
+// including read-only work outside a transaction, uses the primary.
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final HikariDataSource primaryPool;
+    private final HikariDataSource replicaPool;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, HikariDataSource primaryPool,
+                                    HikariDataSource replicaPool, ReadReplicaRouting routing,
+                                    MeterRegistry meterRegistry) {
+        super(primary);
+        this.primaryPool = primaryPool;
+        this.replicaPool = replicaPool;
+        setReadOnlyDataSource(new ReadOnlyTarget(primary, replica, routing, meterRegistry));
+    }
+
+    public HikariDataSource getReplicaPool() {
+        return replicaPool;
+    }
+
+    @Override
+    public void close() {
+        replicaPool.close();
+        primaryPool.close();
+    }
+
+    // Picks the pool for a read-only connection at the moment it is needed
+    private static class ReadOnlyTarget extends AbstractDataSource {
+        private final DataSource primary;
+        private final DataSource replica;
+        private final ReadReplicaRouting routing;
+        private final Counter replicaReads;
+        private final Counter primaryReads;
+
+        ReadOnlyTarget(DataSource primary, DataSource replica, ReadReplicaRouting routing,
+                       MeterRegistry meterRegistry) {
+            this.primary = primary;
+            this.replica = replica;
+            this.routing = routing;
+            this.replicaReads = Counter.builder("datasource.replica.read.transactions")
+                .tag("target", "replica")
+                .description("Read-only transactions by the database that served them")
+                .register(meterRegistry);
+            this.primaryReads = Counter.builder("datasource.replica.read.transactions")
+                .tag("target", "primary")
+                .description("Read-only transactions by the database that served them")
+                .register(meterRegistry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return target().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return target().getConnection(username, password);
+        }
+
+        private DataSource target() {
+            if (routing.replicaAllowed()) {
+                replicaReads.increment();
+                return replica;
+            }
+            primaryReads.increment();
+            return primary;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bdpay.dashboard.config;
+
+import java.util.List;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.bdpay.dashboard.repository.UserRepository;
+import com.bdpay.dashboard.service.TransactionRollupService;
+
+@Configuration
+public class RollupConfig {
+
+    // Backfill the monthly and daily category rollups from the raw transactions table
+    // (run once after deploying onto an existing database)
+    @Bean
+    @Profile("rollup-rebuild")
+    public CommandLineRunner rebuildRollups(TransactionRollupService transactionRollupService) {
+        return args -> {
+            int users = transactionRollupService.rebuildAllRollups();
+            System.out.println("Monthly rollups rebuilt for " + users + " users");
+        };
+    }
+
+    // Check every user's rollups against the raw transactions table and rebuild any that drifted.
+    // Months archived out of the table are skipped by both, so their rollups are kept.
+    @Bean
+    @Profile("rollup-check")
+    public CommandLineRunner checkRollups(TransactionRollupService transactionRollupService,
+                                          UserRepository userRepository) {
+        return args -> {
+            int repaired = 0;
+            for (Long userId : userRepository.findAllIds()) {
+                List<String> discrepancies = transactionRollupService.findRollupDiscrepancies(userId);
+                if (!discrepancies.isEmpty()) {
+                    System.out.println("Rollup mismatch for user " + userId + ": " + discrepancies);
+                    transactionRollupService.rebuildUserRollups(userId);
+                    repaired++;
+                }
+            }
+            System.out.println("Rollup check complete, users repaired: " + repaired);
+        };
+    }
+}
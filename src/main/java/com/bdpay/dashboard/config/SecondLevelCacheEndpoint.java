@@ -0,0 +1,63 @@
+package com.bdpay.dashboard.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// /actuator/secondlevelcache: per-region figures from Hibernate (hits, misses, puts) and from the
+// underlying JCache caches (evictions, hit percentage), plus cross-instance invalidation counts
+@Component
+@Endpoint(id = "secondlevelcache")
+public class SecondLevelCacheEndpoint {
+
+    private static final String[] REGIONS = { "accounts", "users", "user-accounts" };
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+
+    @ReadOperation
+    public Map<String, Object> statistics() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            CacheRegionStatistics hibernateStats = statistics.getDomainDataRegionStatistics(region);
+            regionStats.put("hits", hibernateStats.getHitCount());
+            regionStats.put("misses", hibernateStats.getMissCount());
+            regionStats.put("puts", hibernateStats.getPutCount());
+
+            for (ObjectName name : mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null)) {
+                regionStats.put("evictions", mBeanServer.getAttribute(name, "CacheEvictions"));
+                regionStats.put("removals", mBeanServer.getAttribute(name, "CacheRemovals"));
+                regionStats.put("hitPercentage", mBeanServer.getAttribute(name, "CacheHitPercentage"));
+            }
+            regions.put(region, regionStats);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("regions", regions);
+        response.put("invalidationsPublished", secondLevelCacheInvalidator.getPublished());
+        response.put("invalidationsReceived", secondLevelCacheInvalidator.getReceived());
+        response.put("invalidationsDropped", secondLevelCacheInvalidator.getDropped());
+        return response;
+    }
+}
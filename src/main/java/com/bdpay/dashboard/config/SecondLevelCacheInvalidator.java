@@ -0,0 +1,254 @@
+package com.bdpay.dashboard.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+// Keeps the Account/User second-level cache regions coherent. Locally it drops the cached
+// User.accounts collection when an account is added or removed (Hibernate does not do this for
+// the inverse side). Across instances it publishes committed Account/User changes on a
+// PostgreSQL NOTIFY channel and evicts whatever other instances report. Messages go out and come
+// in on one dedicated connection outside the pool; if it drops, the regions are cleared since
+// notifications may have been missed.
+@Component
+public class SecondLevelCacheInvalidator
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String USER_ACCOUNTS_ROLE = User.class.getName() + ".accounts";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${second-level-cache.cluster-invalidation.enabled:true}")
+    private boolean clusterInvalidation;
+
+    @Value("${second-level-cache.cluster-invalidation.channel:l2_cache_invalidation}")
+    private String channel;
+
+    // How long the listener waits for notifications before sending queued ones
+    @Value("${second-level-cache.cluster-invalidation.poll-timeout-ms:200}")
+    private int pollTimeoutMs;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outgoing = new LinkedBlockingQueue<>(100_000);
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private Cache cache;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @PostConstruct
+    void init() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        cache = sessionFactory.getCache();
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        if (clusterInvalidation) {
+            running = true;
+            listenerThread = Thread.ofPlatform().daemon().name("l2-cache-invalidation").start(this::listen);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.join(pollTimeoutMs * 2L);
+        }
+    }
+
+    // An account's balances were changed outside Hibernate (e.g. the ledger's write-behind)
+    public void evictAccount(Long accountId, Long userId) {
+        cache.evictEntityData(Account.class, accountId);
+        publish("Account", accountId, userId);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            Long userId = account.getUser() != null ? account.getUser().getId() : null;
+            evictUserAccounts(userId);
+            publish("Account", account.getId(), userId);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            publish("Account", account.getId(), account.getUser() != null ? account.getUser().getId() : null);
+        } else if (event.getEntity() instanceof User user) {
+            publish("User", user.getId(), null);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            Long userId = account.getUser() != null ? account.getUser().getId() : null;
+            evictUserAccounts(userId);
+            publish("Account", account.getId(), userId);
+        } else if (event.getEntity() instanceof User user) {
+            publish("User", user.getId(), null);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Account.class || entityClass == User.class;
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void evictUserAccounts(Long userId) {
+        if (userId != null) {
+            cache.evictCollectionData(USER_ACCOUNTS_ROLE, userId);
+        }
+    }
+
+    private void publish(String type, Long id, Long userId) {
+        if (!clusterInvalidation || id == null) {
+            return;
+        }
+        String payload = instanceId + "|" + type + "|" + id + "|" + (userId != null ? userId : "");
+        if (!outgoing.offer(payload)) {
+            // Can't tell other instances precisely: their TTLs bound the staleness
+            dropped.increment();
+        }
+    }
+
+    // Apply an invalidation published by another instance
+    private void apply(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+        received.increment();
+        Long id = Long.valueOf(parts[2]);
+        if (parts[1].equals("Account")) {
+            cache.evictEntityData(Account.class, id);
+            evictUserAccounts(parts[3].isEmpty() ? null : Long.valueOf(parts[3]));
+        } else if (parts[1].equals("User")) {
+            cache.evictEntityData(User.class, id);
+            evictUserAccounts(id);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                    sendQueued(connection);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                System.out.println("Second-level cache invalidation connection lost: " + e.getMessage());
+                // Notifications may have been missed while disconnected
+                cache.evictEntityData(Account.class);
+                cache.evictEntityData(User.class);
+                cache.evictCollectionData(USER_ACCOUNTS_ROLE);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sendQueued(Connection connection) throws SQLException {
+        List<String> batch = new ArrayList<>();
+        outgoing.drainTo(batch, 1000);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : batch) {
+                notify.setString(1, channel);
+                notify.setString(2, payload);
+                notify.execute();
+            }
+        }
+        published.add(batch.size());
+    }
+}
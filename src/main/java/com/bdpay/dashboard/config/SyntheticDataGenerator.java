@@ -0,0 +1,376 @@
+package com.bdpay.dashboard.config;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import com.bdpay.dashboard.entity.Account.AccountType;
+
+// Bulk-loads synthetic users, their four default accounts and their transactions with COPY.
+// Everything a user gets is drawn from a random stream seeded by (seed, user index), so the same
+// seed, end date and sizes always produce the same rows regardless of batch size. IDs are reserved
+// from the tables' own sequences first, so the rows can be loaded alongside a running application.
+public class SyntheticDataGenerator {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int COPY_BUFFER_BYTES = 1 << 20;
+    private static final int TRANSACTION_ID_BLOCK = 50; // transactions_seq increment (allocationSize)
+
+    private static final String[] FIRST_NAMES = {"Amina", "Baraka", "Chloe", "Daniel", "Esther", "Farid",
+        "Grace", "Hassan", "Imani", "James", "Khadija", "Liam", "Mariam", "Noah", "Olivia", "Peter", "Rehema",
+        "Samuel", "Tatu", "Victor", "Wanjiru", "Yusuf", "Zawadi", "Leo"};
+    private static final String[] LAST_NAMES = {"Mwangi", "Otieno", "Smith", "Kimaro", "Hassan", "Njoroge",
+        "Brown", "Mushi", "Ali", "Johnson", "Mollel", "Williams", "Massawe", "Okafor", "Garcia", "Mbwana"};
+
+    // Expense categories: weight, median amount, log-normal spread, merchants (null = uncategorized)
+    private static final Category[] EXPENSES = {
+        new Category("Groceries", 22, 45, 0.6, "Shoprite", "Carrefour", "Village Market", "Naivas", "Fresh Mart"),
+        new Category("Dining", 14, 18, 0.5, "Java House", "KFC", "Pizza Inn", "Artcaffe", "Chicken Inn"),
+        new Category("Transport", 12, 9, 0.7, "Uber", "Bolt", "Shell", "Total Energies", "Little Cab"),
+        new Category("Bills", 12, 85, 0.5, "TANESCO", "DAWASCO", "Vodacom", "Airtel", "Azam TV"),
+        new Category("Shopping", 12, 60, 0.9, "Amazon", "Jumia", "Game Stores", "Mr Price", "Woolworths"),
+        new Category("Payment", 8, 150, 0.8, "Gym", "Facebook Ads", "Google Ads", "AWS", "Office Rent"),
+        new Category("Entertainment", 6, 25, 0.6, "Netflix", "Spotify", "Century Cinemax", "Steam"),
+        new Category("Health", 5, 40, 0.8, "Aga Khan Hospital", "Goodlife Pharmacy", "Dental Care"),
+        new Category("Travel", 4, 320, 0.7, "Precision Air", "Kenya Airways", "Serena Hotels", "Booking.com"),
+        new Category(null, 5, 30, 1.0, "POS Purchase", "Card Payment", "Online Purchase")
+    };
+    private static final Category[] INCOME = {
+        new Category("Salary", 40, 2500, 0.3, "Employer Payroll", "Contract Payment"),
+        new Category("Deposit", 30, 600, 0.8, "Al-Bank", "CRDB Bank", "NMB Bank", "M-Pesa"),
+        new Category("Transfer", 20, 300, 0.9, "Internal Transfer", "Family Transfer"),
+        new Category("Refund", 10, 40, 0.7, "Amazon", "Jumia", "Booking.com")
+    };
+
+    // Relative transaction volume per hour of day
+    private static final int[] HOUR_WEIGHTS = {1, 1, 1, 1, 1, 2, 4, 7, 9, 10, 10, 11,
+                                               13, 12, 10, 10, 11, 12, 13, 12, 9, 6, 3, 2};
+
+    private final DataSource dataSource;
+    private final long seed;
+    private final int transactionsPerAccount;
+    private final int historyDays;
+    private final LocalDate endDate;
+    private final String emailDomain;
+    private final String passwordHash;
+
+    private final int expenseWeightTotal = totalWeight(EXPENSES);
+    private final int incomeWeightTotal = totalWeight(INCOME);
+    private final int hourWeightTotal = Arrays.stream(HOUR_WEIGHTS).sum();
+
+    public SyntheticDataGenerator(DataSource dataSource, long seed, int transactionsPerAccount, int historyDays,
+                                  LocalDate endDate, String emailDomain, String passwordHash) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+        this.transactionsPerAccount = transactionsPerAccount;
+        this.historyDays = historyDays;
+        this.endDate = endDate;
+        this.emailDomain = emailDomain;
+        this.passwordHash = passwordHash;
+    }
+
+    // Load users [firstIndex, firstIndex + count) in one database transaction, returning their IDs
+    public List<Long> generateBatch(int firstIndex, int count) throws SQLException {
+        AccountType[] accountTypes = AccountType.values();
+        int transactionsInBatch = count * accountTypes.length * transactionsPerAccount;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long[] userIds = reserveIds(connection,
+                    "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, " + count + ")");
+                long[] accountIds = reserveIds(connection,
+                    "SELECT nextval(pg_get_serial_sequence('accounts', 'id')) FROM generate_series(1, "
+                        + count * accountTypes.length + ")");
+                long[] transactionIds = reserveTransactionIds(connection, transactionsInBatch);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                copy(pgConnection, "COPY users (id, first_name, last_name, email, password, created_at, updated_at) "
+                        + "FROM STDIN WITH (FORMAT csv)", out -> {
+                    for (int i = 0; i < count; i++) {
+                        writeUser(out, userIds[i], firstIndex + i);
+                    }
+                });
+
+                copy(pgConnection, "COPY accounts (id, account_name, account_type, current_balance, previous_balance, "
+                        + "spending_limit, total_limit, card_number, card_type, created_at, updated_at, version, user_id) "
+                        + "FROM STDIN WITH (FORMAT csv)", out -> {
+                    for (int i = 0; i < count; i++) {
+                        SplittableRandom random = randomFor(firstIndex + i, 1);
+                        for (int a = 0; a < accountTypes.length; a++) {
+                            writeAccount(out, accountIds[i * accountTypes.length + a], accountTypes[a], userIds[i],
+                                random);
+                        }
+                    }
+                });
+
+                copy(pgConnection, "COPY transactions (id, business_name, category, amount, transaction_type, status, "
+                        + "description, transaction_date, created_at, updated_at, account_id, user_id) "
+                        + "FROM STDIN WITH (FORMAT csv)", out -> {
+                    int next = 0;
+                    for (int i = 0; i < count; i++) {
+                        SplittableRandom random = randomFor(firstIndex + i, 2);
+                        for (int a = 0; a < accountTypes.length; a++) {
+                            long accountId = accountIds[i * accountTypes.length + a];
+                            for (int t = 0; t < transactionsPerAccount; t++) {
+                                writeTransaction(out, transactionIds[next++], accountId, userIds[i], accountTypes[a],
+                                    random);
+                            }
+                        }
+                    }
+                });
+
+                connection.commit();
+
+                List<Long> ids = new ArrayList<>(count);
+                for (long userId : userIds) {
+                    ids.add(userId);
+                }
+                return ids;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // True when this seed has already been loaded (its emails are taken)
+    public boolean alreadyGenerated() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1 FROM users WHERE email = '" + email(0) + "'")) {
+            return rs.next();
+        }
+    }
+
+    // Run one COPY; a failure part-way cancels it so the connection can still roll back
+    private static void copy(PGConnection connection, String sql, CopyRows rows) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(sql);
+        try {
+            CopyWriter out = new CopyWriter(copyIn);
+            rows.write(out);
+            out.finish();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void writeUser(CopyWriter out, long id, int index) throws SQLException {
+        SplittableRandom random = randomFor(index, 0);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String createdAt = TIMESTAMP.format(endDate.minusDays(historyDays).atStartOfDay());
+        out.field(id).field(firstName).field(lastName)
+            .field(email(index))
+            .field(passwordHash).field(createdAt).last(createdAt);
+    }
+
+    private String email(int index) {
+        return "synthetic-" + seed + "-" + index + "@" + emailDomain;
+    }
+
+    private void writeAccount(CopyWriter out, long id, AccountType type, long userId, SplittableRandom random)
+            throws SQLException {
+        double median = switch (type) {
+            case BUSINESS -> 24000;
+            case TAX_RESERVE -> 2500;
+            case SAVINGS -> 2000;
+            case WALLET -> 1500;
+        };
+        String current = money(logNormal(random, median, 0.6));
+        String previous = money(logNormal(random, median, 0.6));
+        String createdAt = TIMESTAMP.format(endDate.minusDays(historyDays).atStartOfDay());
+        boolean wallet = type == AccountType.WALLET;
+
+        out.field(id).field(type.getDisplayName()).field(type.name()).field(current).field(previous)
+            .field(wallet ? "9800.00" : null).field(wallet ? "13000.00" : null)
+            .field(wallet ? String.format("**** **** **** %04d", random.nextInt(10000)) : null)
+            .field(wallet ? (random.nextInt(3) == 0 ? "MASTERCARD" : "VISA") : null)
+            .field(createdAt).field(createdAt).field(0).last(userId);
+    }
+
+    private void writeTransaction(CopyWriter out, long id, long accountId, long userId, AccountType accountType,
+                                  SplittableRandom random) throws SQLException {
+        double incomeShare = switch (accountType) {
+            case BUSINESS -> 0.35;
+            case TAX_RESERVE -> 0.5;
+            case SAVINGS -> 0.6;
+            case WALLET -> 0.1;
+        };
+        boolean income = random.nextDouble() < incomeShare;
+        Category category = income ? pick(INCOME, incomeWeightTotal, random) : pick(EXPENSES, expenseWeightTotal, random);
+        String businessName = category.merchants[random.nextInt(category.merchants.length)];
+        String amount = money(Math.max(0.01, logNormal(random, category.median, category.spread)));
+
+        int daysAgo = random.nextInt(historyDays);
+        LocalDateTime date = endDate.minusDays(daysAgo).atTime(hour(random), random.nextInt(60), random.nextInt(60));
+        String status = status(random, daysAgo);
+        String timestamp = TIMESTAMP.format(date);
+
+        out.field(id).field(businessName).field(category.name).field(amount)
+            .field(income ? "INCOME" : "EXPENSE").field(status)
+            .field((category.name != null ? category.name : "Purchase") + " - " + businessName)
+            .field(timestamp).field(timestamp).field(timestamp).field(accountId).last(userId);
+    }
+
+    // Recent transactions are far more likely to still be pending
+    private String status(SplittableRandom random, int daysAgo) {
+        double roll = random.nextDouble();
+        double pending = daysAgo < 3 ? 0.4 : 0.01;
+        if (roll < pending) {
+            return "PENDING";
+        }
+        return roll < pending + 0.03 ? "FAILED" : "SUCCESS";
+    }
+
+    private int hour(SplittableRandom random) {
+        int roll = random.nextInt(hourWeightTotal);
+        for (int hour = 0; hour < HOUR_WEIGHTS.length; hour++) {
+            roll -= HOUR_WEIGHTS[hour];
+            if (roll < 0) {
+                return hour;
+            }
+        }
+        return 12;
+    }
+
+    private static Category pick(Category[] categories, int totalWeight, SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Category category : categories) {
+            roll -= category.weight;
+            if (roll < 0) {
+                return category;
+            }
+        }
+        return categories[0];
+    }
+
+    private static double logNormal(SplittableRandom random, double median, double spread) {
+        // Box-Muller standard normal
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        double normal = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+        return median * Math.exp(spread * normal);
+    }
+
+    private static String money(double value) {
+        long cents = Math.round(value * 100);
+        return (cents / 100) + "." + (cents % 100 < 10 ? "0" : "") + (cents % 100);
+    }
+
+    // Independent stream per (user, purpose): output doesn't depend on batching or ordering
+    private SplittableRandom randomFor(int userIndex, int stream) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + userIndex * 0xBF58476D1CE4E5B9L + stream * 0x94D049BB133111EBL;
+        return new SplittableRandom(mixed);
+    }
+
+    private static long[] reserveIds(Connection connection, String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Hibernate's pooled optimizer treats each transactions_seq value v as owning (v - 50, v], so
+    // whole blocks taken here never collide with IDs the application hands out
+    private static long[] reserveTransactionIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled) / TRANSACTION_ID_BLOCK + 1;
+            for (long upper : reserveIds(connection,
+                    "SELECT nextval('transactions_seq') FROM generate_series(1, " + blocks + ")")) {
+                for (long id = upper - TRANSACTION_ID_BLOCK + 1; id <= upper && filled < count; id++) {
+                    if (id >= 1) {
+                        ids[filled++] = id;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int totalWeight(Category[] categories) {
+        int total = 0;
+        for (Category category : categories) {
+            total += category.weight;
+        }
+        return total;
+    }
+
+    private interface CopyRows {
+        void write(CopyWriter out) throws SQLException;
+    }
+
+    private record Category(String name, int weight, double median, double spread, String... merchants) {
+    }
+
+    // CSV rows streamed into a COPY in 1 MB chunks
+    private static class CopyWriter {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_BYTES + 4096);
+        private boolean firstField = true;
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        CopyWriter field(Object value) {
+            if (!firstField) {
+                buffer.append(',');
+            }
+            firstField = false;
+            if (value == null) {
+                return this; // empty unquoted field is NULL in CSV format
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                buffer.append(text);
+            }
+            return this;
+        }
+
+        void last(Object value) throws SQLException {
+            field(value);
+            buffer.append('\n');
+            firstField = true;
+            if (buffer.length() >= COPY_BUFFER_BYTES) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
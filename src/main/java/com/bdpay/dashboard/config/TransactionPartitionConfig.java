@@ -0,0 +1,27 @@
+package com.bdpay.dashboard.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// Monthly partition maintenance for transactions (transaction-partitions.* in application.yml)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "transaction-partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionPartitionConfig {
+
+    @Bean
+    public TransactionPartitionManager transactionPartitionManager(DataSource dataSource,
+                                                                   PlatformTransactionManager transactionManager,
+                                                                   Environment environment) {
+        return new TransactionPartitionManager(dataSource, transactionManager,
+            environment.getProperty("transaction-partitions.months-ahead", Integer.class, 3),
+            environment.getProperty("transaction-partitions.retention-months", Integer.class, 0),
+            environment.getProperty("transaction-partitions.archive-schema", "transactions_archive"));
+    }
+}
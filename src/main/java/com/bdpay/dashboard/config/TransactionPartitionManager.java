@@ -0,0 +1,173 @@
+package com.bdpay.dashboard.config;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Keeps the monthly partitions of transactions (see db/partition-transactions.sql) ahead of the
+// calendar, gives rows that landed in the default partition (imports, back-dated data) a partition
+// of their own month, and detaches partitions past the retention period into the archive schema.
+public class TransactionPartitionManager {
+
+    private static final String PARENT = "transactions";
+    private static final String DEFAULT_PARTITION = "transactions_default";
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("transactions_y(\\d{4})m(\\d{2})");
+    // Serializes partition DDL across application instances
+    private static final long MAINTENANCE_LOCK_KEY = 0x7472616e73L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String archiveSchema;
+
+    public TransactionPartitionManager(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                       int monthsAhead, int retentionMonths, String archiveSchema) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${transaction-partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                System.out.println("transactions is not partitioned; skipping partition maintenance");
+                return;
+            }
+            YearMonth current = YearMonth.now();
+            ensurePartitions(current, current.plusMonths(monthsAhead));
+            splitDefaultPartition();
+            if (retentionMonths > 0) {
+                archivePartitionsBefore(current.minusMonths(retentionMonths));
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Transaction partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    // Create any missing monthly partitions from first to last, inclusive
+    public void ensurePartitions(YearMonth first, YearMonth last) {
+        Set<String> existing = new HashSet<>(partitionNames());
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!existing.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+    }
+
+    // Months that only the default partition holds get partitions of their own
+    public void splitDefaultPartition() {
+        List<LocalDate> months = jdbcTemplate.queryForList(
+            "SELECT DISTINCT CAST(date_trunc('month', transaction_date) AS date) FROM " + DEFAULT_PARTITION,
+            LocalDate.class);
+        for (LocalDate month : months) {
+            createPartition(YearMonth.from(month));
+        }
+    }
+
+    // Detach monthly partitions older than the cutoff and move them into the archive schema, where
+    // they stay queryable for audits until dumped or dropped. Rollups keep their totals, and rollup
+    // checks and rebuilds leave months before archiveCutoff() alone.
+    public void archivePartitionsBefore(YearMonth cutoff) {
+        for (String name : partitionNames()) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(cutoff)) {
+                writeTransaction.executeWithoutResult(status -> {
+                    lockMaintenance();
+                    jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+                    jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+                });
+                System.out.println("Archived transaction partition " + name + " to schema " + archiveSchema);
+            }
+        }
+    }
+
+    // First month whose partition is still attached: every month before it has been archived, so
+    // the live table no longer holds it (empty when nothing has been archived)
+    public Optional<YearMonth> archiveCutoff() {
+        List<String> archived = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND c.relkind = 'r'", String.class, archiveSchema);
+        YearMonth newest = null;
+        for (String name : archived) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (newest == null || month.isAfter(newest)) {
+                    newest = month;
+                }
+            }
+        }
+        return Optional.ofNullable(newest).map(month -> month.plusMonths(1));
+    }
+
+    // Build the partition standalone, move its month out of the default partition, then attach it
+    // (attaching creates the parent's indexes on it). One transaction, so no row is ever missing.
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Integer moved = writeTransaction.execute(status -> {
+            lockMaintenance();
+            if (partitionNames().contains(name)) {
+                return 0;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE transaction_date >= ? AND transaction_date < ? RETURNING *) "
+                + "INSERT INTO " + name + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return rows;
+        });
+        System.out.println("Created transaction partition " + name
+            + (moved != null && moved > 0 ? " (" + moved + " rows moved from the default partition)" : ""));
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)", Boolean.class, PARENT));
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?)", String.class, PARENT);
+    }
+
+    private void lockMaintenance() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, MAINTENANCE_LOCK_KEY);
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("transactions_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
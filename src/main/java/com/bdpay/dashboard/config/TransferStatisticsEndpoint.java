@@ -0,0 +1,33 @@
+package com.bdpay.dashboard.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.bdpay.dashboard.service.AccountService;
+import com.bdpay.dashboard.service.AccountTransferEngine;
+
+// /actuator/transfers: transfer engine throughput and contention figures, and the in-memory
+// ledger's write-behind backlog and mutation latency when ledger.enabled=true
+@Component
+@Endpoint(id = "transfers")
+public class TransferStatisticsEndpoint {
+
+    @Autowired
+    private AccountTransferEngine accountTransferEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transferEngine", accountTransferEngine.getStatistics());
+        response.put("ledger", accountService.getLedgerStatistics().orElse(Map.of("enabled", false)));
+        return response;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bdpay.dashboard.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// Virtual-thread execution mode. spring.threads.virtual.enabled switches Tomcat and the @Async /
+// scheduling executors to virtual threads; this adds the guardrails that mode needs.
+@Configuration
+@EnableAsync
+public class VirtualThreadConfig {
+
+    // Put a fair semaphore in front of the connection pool, sized to the pool by default
+    @Bean
+    @ConditionalOnProperty(name = "datasource.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The replica routing DataSource limits each of its pools itself
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource
+                        || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxConcurrency = environment.getProperty("datasource.concurrency-limit.max-concurrency",
+                    Integer.class, poolSize);
+                long acquireTimeoutMs = environment.getProperty("datasource.concurrency-limit.acquire-timeout-ms",
+                    Long.class, 30000L);
+                System.out.println("Limiting DataSource '" + beanName + "' to " + maxConcurrency + " concurrent connections");
+                return new ConnectionLimitingDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+            }
+        };
+    }
+
+    // Report virtual threads pinned to their carrier (e.g. blocking inside synchronized JDBC code)
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public PinnedThreadMonitor pinnedThreadMonitor() {
+        return new PinnedThreadMonitor();
+    }
+}
@@ -1,10 +1,8 @@
 package com.bdpay.dashboard.controller;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bdpay.dashboard.dto.AccountView;
 import com.bdpay.dashboard.entity.Account;
 import com.bdpay.dashboard.entity.Account.AccountType;
 import com.bdpay.dashboard.service.AccountService;
@@ -35,14 +34,10 @@ public class AccountController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getUserAccounts(@PathVariable Long userId) {
         try {
-            List<Account> accounts = accountService.getUserAccounts(userId);
-            
-            List<Map<String, Object>> accountData = accounts.stream()
-                .map(this::mapAccountToResponse)
-                .collect(Collectors.toList());
+            List<AccountView> accounts = accountService.getUserAccountViews(userId);
 
             return ResponseEntity.ok(Map.of(
-                "accounts", accountData,
+                "accounts", accounts,
                 "totalBalance", accountService.getTotalBalance(userId)
             ));
 
@@ -59,7 +54,7 @@ public class AccountController {
             Account account = accountService.getAccountById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
-            return ResponseEntity.ok(mapAccountToResponse(account));
+            return ResponseEntity.ok(AccountView.from(account));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -73,33 +68,15 @@ public class AccountController {
     public ResponseEntity<?> updateAccount(@PathVariable Long accountId,
                                         @RequestBody UpdateAccountRequest request) {
         try {
-            Account account = accountService.getAccountById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-
-            // Update account fields
-            if (request.getAccountName() != null) {
-                account.setAccountName(request.getAccountName());
-            }
-            if (request.getCurrentBalance() != null) {
-                account.setPreviousBalance(account.getCurrentBalance());
-                account.setCurrentBalance(request.getCurrentBalance());
-            }
-            
-            // Handle wallet-specific fields
-            if (account.getAccountType() == AccountType.WALLET) {
-                if (request.getSpendingLimit() != null) {
-                    account.setSpendingLimit(request.getSpendingLimit());
-                }
-                if (request.getTotalLimit() != null) {
-                    account.setTotalLimit(request.getTotalLimit());
-                }
-                if (request.getCardType() != null) {
-                    account.setCardType(request.getCardType());
-                }
-            }
-
-            Account updatedAccount = accountService.updateAccount(account);
-            return ResponseEntity.ok(mapAccountToResponse(updatedAccount));
+            Account updatedAccount = accountService.updateAccount(
+                accountId,
+                request.getAccountName(),
+                request.getCurrentBalance(),
+                request.getSpendingLimit(),
+                request.getTotalLimit(),
+                request.getCardType()
+            );
+            return ResponseEntity.ok(AccountView.from(updatedAccount));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -127,7 +104,7 @@ public class AccountController {
             Account wallet = accountService.getWalletAccount(userId)
                 .orElseThrow(() -> new RuntimeException("Wallet not found"));
 
-            return ResponseEntity.ok(mapAccountToResponse(wallet));
+            return ResponseEntity.ok(AccountView.from(wallet));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -143,7 +120,7 @@ public class AccountController {
             BigDecimal newBalance = request.get("balance");
             Account updatedAccount = accountService.updateBalance(accountId, newBalance);
 
-            return ResponseEntity.ok(mapAccountToResponse(updatedAccount));
+            return ResponseEntity.ok(AccountView.from(updatedAccount));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -159,7 +136,7 @@ public class AccountController {
             BigDecimal newLimit = request.get("spendingLimit");
             Account updatedAccount = accountService.updateSpendingLimit(accountId, newLimit);
 
-            return ResponseEntity.ok(mapAccountToResponse(updatedAccount));
+            return ResponseEntity.ok(AccountView.from(updatedAccount));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -180,7 +157,7 @@ public class AccountController {
             );
 
             return ResponseEntity.status(HttpStatus.CREATED)
-                .body(mapAccountToResponse(account));
+                .body(AccountView.from(account));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -206,29 +183,6 @@ public class AccountController {
         }
     }
 
-    // Helper method to map Account to response
-    private Map<String, Object> mapAccountToResponse(Account account) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", account.getId());
-        response.put("accountName", account.getAccountName());
-        response.put("accountType", account.getAccountType().toString());
-        response.put("currentBalance", account.getCurrentBalance());
-        response.put("previousBalance", account.getPreviousBalance());
-        response.put("percentageChange", account.getPercentageChange());
-        
-        if (account.getAccountType() == AccountType.WALLET) {
-            response.put("spendingLimit", account.getSpendingLimit());
-            response.put("totalLimit", account.getTotalLimit());
-            response.put("cardNumber", account.getCardNumber());
-            response.put("cardType", account.getCardType());
-        }
-        
-        response.put("createdAt", account.getCreatedAt());
-        response.put("updatedAt", account.getUpdatedAt());
-        
-        return response;
-    }
-
     // DTO classes
     public static class CreateAccountRequest {
         private String accountName;
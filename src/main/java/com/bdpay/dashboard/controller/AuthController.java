@@ -2,8 +2,10 @@ package com.bdpay.dashboard.controller;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.bdpay.dashboard.entity.User;
 import com.bdpay.dashboard.security.JwtTokenUtil;
+import com.bdpay.dashboard.security.PasswordHasher.HashingRejectedException;
 import com.bdpay.dashboard.service.AccountService;
 import com.bdpay.dashboard.service.TransactionService;
 import com.bdpay.dashboard.service.UserService;
@@ -74,6 +77,8 @@ public class AuthController {
 
             return ResponseEntity.ok(response);
 
+        } catch (HashingRejectedException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", e.getMessage()));
@@ -84,9 +89,9 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
         try {
-            if (userService.validateCredentials(request.getEmail(), request.getPassword())) {
-                User user = userService.getUserByEmail(request.getEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Optional<User> authenticated = userService.authenticate(request.getEmail(), request.getPassword());
+            if (authenticated.isPresent()) {
+                User user = authenticated.get();
 
                 // Generate JWT token
                 String token = jwtTokenUtil.generateToken(user.getEmail(), user.getId());
@@ -108,6 +113,8 @@ public class AuthController {
                     .body(Map.of("error", "Invalid credentials"));
             }
 
+        } catch (HashingRejectedException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", e.getMessage()));
@@ -150,6 +157,13 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
     }
 
+    // Password hashing is saturated: shed the request and ask the client to retry
+    private ResponseEntity<?> busy(HashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", e.getMessage()));
+    }
+
     // DTO classes
     public static class RegisterRequest {
         private String firstName;
@@ -0,0 +1,40 @@
+package com.bdpay.dashboard.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bdpay.dashboard.service.DashboardService;
+
+@RestController
+@RequestMapping("/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Get accounts, recent transactions, chart and statistics in one request
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getDashboard(@PathVariable Long userId,
+                                        @RequestParam(required = false) Integer year,
+                                        @RequestParam(defaultValue = "false") boolean refresh) {
+        try {
+            int chartYear = year != null ? year : LocalDate.now().getYear();
+            return ResponseEntity.ok(dashboardService.getDashboard(userId, chartYear, refresh));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
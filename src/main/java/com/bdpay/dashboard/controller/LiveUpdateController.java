@@ -0,0 +1,48 @@
+package com.bdpay.dashboard.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bdpay.dashboard.service.LiveUpdateHub;
+import com.bdpay.dashboard.service.LiveUpdateHub.TooManyConnectionsException;
+
+@RestController
+@RequestMapping("/live")
+@CrossOrigin(origins = "http://localhost:3000")
+public class LiveUpdateController {
+
+    @Autowired
+    private LiveUpdateHub liveUpdateHub;
+
+    // Stream of the user's balance changes and transaction updates (text/event-stream), replacing
+    // polling of /accounts/user/{id} and /transactions/recent/user/{id}. Only for the token's own
+    // user; EventSource clients that can't send headers pass the token as ?access_token=.
+    @GetMapping(value = "/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable Long userId,
+                                             @RequestAttribute(name = "userId", required = false) Long tokenUserId) {
+        if (!userId.equals(tokenUserId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // Stop nginx from buffering the stream
+                .body(liveUpdateHub.subscribe(userId));
+
+        } catch (TooManyConnectionsException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+    }
+}
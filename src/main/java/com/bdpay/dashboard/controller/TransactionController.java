@@ -5,10 +5,10 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -17,16 +17,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bdpay.dashboard.dto.CategoryComparison;
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.dto.MoneyFlowChart;
+import com.bdpay.dashboard.dto.MonthlyTotal;
+import com.bdpay.dashboard.dto.ResponseMapper;
+import com.bdpay.dashboard.dto.TransactionView;
 import com.bdpay.dashboard.entity.Transaction;
 import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
 import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.service.CursorPage;
+import com.bdpay.dashboard.service.TransactionExportService;
+import com.bdpay.dashboard.service.TransactionIngestionService;
+import com.bdpay.dashboard.service.TransactionIngestionService.Format;
+import com.bdpay.dashboard.service.TransactionIngestionService.IngestionReport;
 import com.bdpay.dashboard.service.TransactionService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/transactions")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -35,17 +50,19 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionIngestionService transactionIngestionService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
     // Get recent transactions for user (dashboard table)
     @GetMapping("/recent/user/{userId}")
     public ResponseEntity<?> getRecentTransactions(@PathVariable Long userId) {
         try {
-            List<Transaction> transactions = transactionService.getRecentTransactions(userId);
-            
-            List<Map<String, Object>> transactionData = transactions.stream()
-                .map(this::mapTransactionToResponse)
-                .collect(Collectors.toList());
+            List<TransactionView> transactions = transactionService.getRecentTransactions(userId);
 
-            return ResponseEntity.ok(Map.of("transactions", transactionData));
+            return ResponseEntity.ok(Map.of("transactions", transactions));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -59,14 +76,10 @@ public class TransactionController {
                                                @RequestParam(defaultValue = "0") int page,
                                                @RequestParam(defaultValue = "10") int size) {
         try {
-            Page<Transaction> transactionPage = transactionService.getUserTransactions(userId, page, size);
-            
-            List<Map<String, Object>> transactionData = transactionPage.getContent().stream()
-                .map(this::mapTransactionToResponse)
-                .collect(Collectors.toList());
+            Page<TransactionView> transactionPage = transactionService.getUserTransactions(userId, page, size);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("transactions", transactionData);
+            response.put("transactions", transactionPage.getContent());
             response.put("totalElements", transactionPage.getTotalElements());
             response.put("totalPages", transactionPage.getTotalPages());
             response.put("currentPage", page);
@@ -80,15 +93,51 @@ public class TransactionController {
         }
     }
 
+    // Get cursor-paginated transactions for user (no OFFSET scan, total count only on request)
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<?> getUserTransactionsByCursor(@PathVariable Long userId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPage<TransactionView> transactionPage = transactionService.getUserTransactionsByCursor(
+                userId, cursor, clampPageSize(size), includeTotal);
+
+            return ResponseEntity.ok(mapCursorPageToResponse(transactionPage));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Get cursor-paginated transactions for a single account
+    @GetMapping("/account/{accountId}/cursor")
+    public ResponseEntity<?> getAccountTransactionsByCursor(@PathVariable Long accountId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "10") int size,
+                                                          @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPage<TransactionView> transactionPage = transactionService.getAccountTransactionsByCursor(
+                accountId, cursor, clampPageSize(size), includeTotal);
+
+            return ResponseEntity.ok(mapCursorPageToResponse(transactionPage));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Get monthly transaction data for money flow chart
     @GetMapping("/chart/user/{userId}")
     public ResponseEntity<?> getChartData(@PathVariable Long userId,
                                         @RequestParam(defaultValue = "2024") int year) {
         try {
-            List<Object[]> monthlyData = transactionService.getMonthlyTransactionData(userId, year);
+            List<MonthlyTotal> monthlyData = transactionService.getMonthlyTransactionData(userId, year);
             
             // Process data for frontend chart
-            Map<String, Object> chartData = processMonthlyDataForChart(monthlyData);
+            MoneyFlowChart chartData = ResponseMapper.processMonthlyDataForChart(monthlyData);
 
             return ResponseEntity.ok(chartData);
 
@@ -98,12 +147,13 @@ public class TransactionController {
         }
     }
 
-    // Get spending statistics for statistics panel
+    // Get spending statistics for statistics panel, optionally compared with the previous period
     @GetMapping("/statistics/user/{userId}")
     public ResponseEntity<?> getStatistics(@PathVariable Long userId,
-                                        @RequestParam(defaultValue = "current") String period) {
+                                        @RequestParam(defaultValue = "current") String period,
+                                        @RequestParam(defaultValue = "false") boolean compare) {
         try {
-            List<Object[]> spendingData;
+            List<CategorySpending> spendingData;
             
             // Calculate date range based on period
             LocalDateTime startDate;
@@ -139,24 +189,50 @@ public class TransactionController {
             spendingData = transactionService.getSpendingByCategory(userId, startDate, endDate);
             
             // Process data for frontend statistics
-            List<Map<String, Object>> statisticsData = spendingData.stream()
-                .map(data -> Map.of(
-                    "category", data[0] != null ? data[0].toString() : "Others",
-                    "amount", data[1] != null ? data[1] : BigDecimal.ZERO
-                ))
-                .collect(Collectors.toList());
+            List<CategorySpending> statisticsData = ResponseMapper.mapSpendingToStatistics(spendingData);
+            BigDecimal total = ResponseMapper.sumStatistics(statisticsData);
 
-            BigDecimal total = statisticsData.stream()
-                .map(item -> (BigDecimal) item.get("amount"))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            Map<String, Object> response = new HashMap<>();
+            response.put("categories", statisticsData);
+            response.put("total", total);
+            response.put("period", period);
+            response.put("startDate", startDate);
+            response.put("endDate", endDate);
+
+            if (compare) {
+                LocalDateTime previousStartDate;
+                LocalDateTime previousEndDate;
+                if ("last".equalsIgnoreCase(period)) {
+                    // The whole month before last month
+                    previousStartDate = startDate.minusMonths(1);
+                    previousEndDate = previousStartDate.withDayOfMonth(previousStartDate.toLocalDate().lengthOfMonth())
+                                        .withHour(23).withMinute(59).withSecond(59);
+                } else if ("quarter".equalsIgnoreCase(period)) {
+                    previousStartDate = startDate.minusMonths(3);
+                    previousEndDate = endDate.minusMonths(3);
+                } else if ("year".equalsIgnoreCase(period)) {
+                    previousStartDate = startDate.minusYears(1);
+                    previousEndDate = endDate.minusYears(1);
+                } else {
+                    // Month to date against the same days of last month
+                    previousStartDate = startDate.minusMonths(1);
+                    previousEndDate = endDate.minusMonths(1);
+                }
 
-            return ResponseEntity.ok(Map.of(
-                "categories", statisticsData,
-                "total", total,
-                "period", period,
-                "startDate", startDate,
-                "endDate", endDate
-            ));
+                List<CategoryComparison> comparisonData = transactionService.compareSpendingByCategory(
+                    userId, startDate, endDate, previousStartDate, previousEndDate);
+
+                Map<String, Object> comparison = new HashMap<>();
+                comparison.put("categories", ResponseMapper.mapSpendingComparison(comparisonData));
+                comparison.put("previousTotal", comparisonData.stream()
+                    .map(CategoryComparison::previousAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+                comparison.put("previousStartDate", previousStartDate);
+                comparison.put("previousEndDate", previousEndDate);
+                response.put("comparison", comparison);
+            }
+
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -178,9 +254,70 @@ public class TransactionController {
             );
 
             return ResponseEntity.status(HttpStatus.CREATED)
-                .body(mapTransactionToResponse(transaction));
+                .body(TransactionView.from(transaction));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bulk import transactions from an NDJSON or CSV stream (one transaction per line)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<?> importTransactions(HttpServletRequest request,
+                                                @RequestAttribute(name = "userId", required = false) Long tokenUserId) {
+        if (tokenUserId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "Imports need a user token"));
+        }
+        try {
+            String contentType = request.getContentType();
+            Format format = contentType != null && contentType.startsWith("text/csv")
+                ? Format.CSV
+                : Format.NDJSON;
+
+            IngestionReport report = transactionIngestionService.ingest(request.getInputStream(), format, tokenUserId);
+
+            return ResponseEntity.ok(report.toResponse());
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Export a user's full transaction history as CSV or NDJSON, streamed row by row. Only for
+    // the token's own user
+    @GetMapping("/export/user/{userId}")
+    public ResponseEntity<?> exportTransactions(@PathVariable Long userId,
+                                              @RequestParam(defaultValue = "csv") String format,
+                                              @RequestAttribute(name = "userId", required = false) Long tokenUserId,
+                                              HttpServletResponse response) {
+        if (!userId.equals(tokenUserId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "Exports are only available for your own transactions"));
+        }
+        try {
+            Format exportFormat = Format.valueOf(format.toUpperCase());
+
+            response.setContentType(exportFormat == Format.CSV
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + userId
+                + (exportFormat == Format.CSV ? ".csv" : ".ndjson") + "\"");
+
+            transactionExportService.export(userId, exportFormat, response.getOutputStream());
+
+            // The body has already been written
+            return null;
 
         } catch (Exception e) {
+            if (response.isCommitted()) {
+                // Too late for an error body: the client sees a truncated download
+                System.out.println("Transaction export for user " + userId + " aborted: " + e.getMessage());
+                return null;
+            }
+            response.reset();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", e.getMessage()));
         }
@@ -194,7 +331,7 @@ public class TransactionController {
             TransactionStatus newStatus = TransactionStatus.valueOf(request.get("status"));
             Transaction updatedTransaction = transactionService.processTransaction(transactionId, newStatus);
 
-            return ResponseEntity.ok(mapTransactionToResponse(updatedTransaction));
+            return ResponseEntity.ok(TransactionView.from(updatedTransaction));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -218,15 +355,38 @@ public class TransactionController {
     // Search transactions
     @GetMapping("/search/user/{userId}")
     public ResponseEntity<?> searchTransactions(@PathVariable Long userId,
-                                              @RequestParam String query) {
+                                              @RequestParam String query,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Transaction> transactions = transactionService.searchTransactions(userId, query);
-            
-            List<Map<String, Object>> transactionData = transactions.stream()
-                .map(this::mapTransactionToResponse)
-                .collect(Collectors.toList());
+            int pageSize = clampPageSize(size);
+            List<TransactionView> transactions = transactionService.searchTransactions(
+                userId, query, Math.max(page, 0), pageSize);
+            boolean hasMore = transactions.size() > pageSize;
+
+            return ResponseEntity.ok(Map.of(
+                "transactions", hasMore ? transactions.subList(0, pageSize) : transactions,
+                "page", Math.max(page, 0),
+                "size", pageSize,
+                "hasMore", hasMore
+            ));
 
-            return ResponseEntity.ok(Map.of("transactions", transactionData));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Autocomplete business names for the search box
+    @GetMapping("/search/user/{userId}/suggest")
+    public ResponseEntity<?> suggestBusinessNames(@PathVariable Long userId,
+                                                @RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<String> suggestions = transactionService.suggestBusinessNames(
+                userId, prefix, Math.max(1, Math.min(limit, 25)));
+
+            return ResponseEntity.ok(Map.of("suggestions", suggestions));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -234,57 +394,22 @@ public class TransactionController {
         }
     }
 
-    // Helper method to map Transaction to response
-    private Map<String, Object> mapTransactionToResponse(Transaction transaction) {
+    // Helper method to map a cursor page to response
+    private Map<String, Object> mapCursorPageToResponse(CursorPage<TransactionView> transactionPage) {
         Map<String, Object> response = new HashMap<>();
-        response.put("id", transaction.getId());
-        response.put("businessName", transaction.getBusinessName());
-        response.put("category", transaction.getCategory());
-        response.put("amount", transaction.getAmount());
-        response.put("transactionType", transaction.getTransactionType().toString());
-        response.put("status", transaction.getStatus().toString());
-        response.put("description", transaction.getDescription());
-        response.put("transactionDate", transaction.getTransactionDate());
-        response.put("createdAt", transaction.getCreatedAt());
-        response.put("accountId", transaction.getAccount().getId());
-        
+        response.put("transactions", transactionPage.getContent());
+        response.put("nextCursor", transactionPage.getNextCursor());
+        response.put("previousCursor", transactionPage.getPreviousCursor());
+        response.put("hasNext", transactionPage.hasNext());
+        response.put("hasPrevious", transactionPage.hasPrevious());
+        if (transactionPage.getTotalElements() != null) {
+            response.put("totalElements", transactionPage.getTotalElements());
+        }
         return response;
     }
 
-    // Helper method to process monthly data for chart
-    private Map<String, Object> processMonthlyDataForChart(List<Object[]> monthlyData) {
-        Map<String, Object> chartData = new HashMap<>();
-        // Initialize arrays for 12 months
-        BigDecimal[] income = new BigDecimal[12];
-        BigDecimal[] expense = new BigDecimal[12];
-        
-        // Initialize with zeros
-        for (int i = 0; i < 12; i++) {
-            income[i] = BigDecimal.ZERO;
-            expense[i] = BigDecimal.ZERO;
-        }
-        
-        // Fill with actual data
-        for (Object[] data : monthlyData) {
-            Integer month = (Integer) data[0];
-            String type = data[1].toString();
-            BigDecimal amount = (BigDecimal) data[2];
-            
-            if (month >= 1 && month <= 12) {
-                if ("INCOME".equals(type)) {
-                    income[month - 1] = amount;
-                } else if ("EXPENSE".equals(type)) {
-                    expense[month - 1] = amount;
-                }
-            }
-        }
-        
-        chartData.put("income", income);
-        chartData.put("expense", expense);
-        chartData.put("months", new String[]{"Jan", "Feb", "Mar", "Apr", "May", "Jun", 
-                                           "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"});
-        
-        return chartData;
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
     }
 
     // DTO class
@@ -0,0 +1,13 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+
+import com.bdpay.dashboard.entity.Account.AccountType;
+
+// Balance pair per account type for the dashboard summary
+public record AccountSummaryView(
+    AccountType accountType,
+    BigDecimal currentBalance,
+    BigDecimal previousBalance
+) {
+}
@@ -0,0 +1,69 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Immutable account card, selected directly in JPQL for list endpoints and serialized as-is.
+// Card and limit fields are only set (and only written) for wallet accounts.
+public record AccountView(
+    Long id,
+    String accountName,
+    AccountType accountType,
+    BigDecimal currentBalance,
+    BigDecimal previousBalance,
+    @JsonInclude(JsonInclude.Include.NON_NULL) BigDecimal spendingLimit,
+    @JsonInclude(JsonInclude.Include.NON_NULL) BigDecimal totalLimit,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String cardNumber,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String cardType,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    public AccountView {
+        if (accountType != AccountType.WALLET) {
+            spendingLimit = null;
+            totalLimit = null;
+            cardNumber = null;
+            cardType = null;
+        }
+    }
+
+    public static AccountView from(Account account) {
+        return new AccountView(
+            account.getId(),
+            account.getAccountName(),
+            account.getAccountType(),
+            account.getCurrentBalance(),
+            account.getPreviousBalance(),
+            account.getSpendingLimit(),
+            account.getTotalLimit(),
+            account.getCardNumber(),
+            account.getCardType(),
+            account.getCreatedAt(),
+            account.getUpdatedAt()
+        );
+    }
+
+    // Same card with different balances (e.g. the ledger's, which run ahead of the table)
+    public AccountView withBalances(BigDecimal current, BigDecimal previous) {
+        return new AccountView(id, accountName, accountType, current, previous, spendingLimit, totalLimit,
+            cardNumber, cardType, createdAt, updatedAt);
+    }
+
+    // Change from the previous balance in percent, as Account.getPercentageChange() computes it
+    @JsonProperty("percentageChange")
+    public Double percentageChange() {
+        if (previousBalance == null || previousBalance.compareTo(BigDecimal.ZERO) == 0) {
+            return 0.0;
+        }
+        return currentBalance.subtract(previousBalance)
+            .divide(previousBalance, 4, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100))
+            .doubleValue();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Spending for one category in the selected period and in the period it is compared with
+public record CategoryComparison(
+    String category,
+    BigDecimal amount,
+    BigDecimal previousAmount
+) {
+    @JsonProperty("change")
+    public BigDecimal change() {
+        return amount.subtract(previousAmount);
+    }
+
+    // No percentage when there was nothing to compare against
+    @JsonProperty("changePercent")
+    public BigDecimal changePercent() {
+        return previousAmount.signum() == 0 ? null
+            : change().multiply(BigDecimal.valueOf(100)).divide(previousAmount, 2, RoundingMode.HALF_UP);
+    }
+}
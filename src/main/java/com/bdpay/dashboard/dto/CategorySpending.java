@@ -0,0 +1,10 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+
+// Settled spending for one category over a period (category is null for uncategorized)
+public record CategorySpending(
+    String category,
+    BigDecimal amount
+) {
+}
@@ -0,0 +1,11 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+
+// Income and expense per calendar month (index 0 = January) for the money flow chart
+public record MoneyFlowChart(
+    BigDecimal[] income,
+    BigDecimal[] expense,
+    String[] months
+) {
+}
@@ -0,0 +1,13 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+
+// Settled total for one month (1-12) and transaction type
+public record MonthlyTotal(
+    Integer month,
+    TransactionType transactionType,
+    BigDecimal total
+) {
+}
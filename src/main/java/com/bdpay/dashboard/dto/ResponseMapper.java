@@ -0,0 +1,67 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+
+// Response shaping shared by the controllers and the dashboard aggregate. Rows are typed records
+// that Jackson writes directly; only the chart and the "Others" label need assembling here.
+public final class ResponseMapper {
+
+    private static final String UNCATEGORIZED = "Others";
+
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+                                            "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    private ResponseMapper() {}
+
+    // Helper method to process monthly data for chart
+    public static MoneyFlowChart processMonthlyDataForChart(List<MonthlyTotal> monthlyData) {
+        // Initialize arrays for 12 months with zeros
+        BigDecimal[] income = new BigDecimal[12];
+        BigDecimal[] expense = new BigDecimal[12];
+        Arrays.fill(income, BigDecimal.ZERO);
+        Arrays.fill(expense, BigDecimal.ZERO);
+        
+        // Fill with actual data
+        for (MonthlyTotal data : monthlyData) {
+            int month = data.month();
+            if (month >= 1 && month <= 12) {
+                if (data.transactionType() == TransactionType.INCOME) {
+                    income[month - 1] = data.total();
+                } else if (data.transactionType() == TransactionType.EXPENSE) {
+                    expense[month - 1] = data.total();
+                }
+            }
+        }
+        
+        return new MoneyFlowChart(income, expense, MONTHS.clone());
+    }
+
+    // Helper method to label uncategorized spending for the statistics panel
+    public static List<CategorySpending> mapSpendingToStatistics(List<CategorySpending> spendingData) {
+        return spendingData.stream()
+            .map(data -> data.category() != null && data.amount() != null ? data
+                : new CategorySpending(
+                    data.category() != null ? data.category() : UNCATEGORIZED,
+                    data.amount() != null ? data.amount() : BigDecimal.ZERO))
+            .toList();
+    }
+
+    // Helper method to label uncategorized rows of a spending comparison
+    public static List<CategoryComparison> mapSpendingComparison(List<CategoryComparison> comparisonData) {
+        return comparisonData.stream()
+            .map(data -> data.category() != null ? data
+                : new CategoryComparison(UNCATEGORIZED, data.amount(), data.previousAmount()))
+            .toList();
+    }
+
+    // Helper method to total statistics entries
+    public static BigDecimal sumStatistics(List<CategorySpending> statisticsData) {
+        return statisticsData.stream()
+            .map(CategorySpending::amount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
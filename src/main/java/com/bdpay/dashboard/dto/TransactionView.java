@@ -0,0 +1,37 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+
+// Immutable, detached view of a transaction; serialized as-is in API responses
+public record TransactionView(
+    Long id,
+    String businessName,
+    String category,
+    BigDecimal amount,
+    TransactionType transactionType,
+    TransactionStatus status,
+    String description,
+    LocalDateTime transactionDate,
+    LocalDateTime createdAt,
+    Long accountId
+) {
+    public static TransactionView from(Transaction transaction) {
+        return new TransactionView(
+            transaction.getId(),
+            transaction.getBusinessName(),
+            transaction.getCategory(),
+            transaction.getAmount(),
+            transaction.getTransactionType(),
+            transaction.getStatus(),
+            transaction.getDescription(),
+            transaction.getTransactionDate(),
+            transaction.getCreatedAt(),
+            transaction.getAccount().getId()
+        );
+    }
+}
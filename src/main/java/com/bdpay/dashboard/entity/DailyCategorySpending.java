@@ -0,0 +1,87 @@
+package com.bdpay.dashboard.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Pre-aggregated spending per user, day and category (SUCCESS expenses only).
+// Uncategorised spending is stored under an empty category.
+@Entity
+@Table(name = "daily_category_spending",
+       uniqueConstraints = @UniqueConstraint(
+           name = "uk_daily_category_spending_bucket",
+           columnNames = {"user_id", "spending_date", "category"}))
+public class DailyCategorySpending {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "spending_date", nullable = false)
+    private LocalDate spendingDate;
+    
+    @Column(name = "category", nullable = false)
+    private String category;
+    
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public DailyCategorySpending() {}
+    
+    public DailyCategorySpending(Long userId, LocalDate spendingDate, String category,
+                                 BigDecimal totalAmount, Long transactionCount) {
+        this.userId = userId;
+        this.spendingDate = spendingDate;
+        this.category = category;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Lifecycle methods
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public LocalDate getSpendingDate() { return spendingDate; }
+    public void setSpendingDate(LocalDate spendingDate) { this.spendingDate = spendingDate; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public Long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Long transactionCount) { this.transactionCount = transactionCount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
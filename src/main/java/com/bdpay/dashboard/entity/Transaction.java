@@ -15,6 +15,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -23,8 +24,10 @@ import jakarta.validation.constraints.NotNull;
 @Entity
 @Table(name = "transactions")
 public class Transaction {
+    // Sequence with a pooled optimizer: IDs are handed out in blocks of 50 so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -50,7 +53,8 @@ public class Transaction {
     @Column(name = "description")
     private String description;
     
-    @Column(name = "transaction_date")
+    // Partition key of the transactions table (monthly ranges), so never null
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
     
     @Column(name = "created_at")
@@ -64,6 +68,11 @@ public class Transaction {
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
     
+    // Owner of the account, copied from account.user so user-scoped queries skip the accounts join.
+    // NOT NULL and the (account_id, user_id) foreign key come from db/transactions-user-id.sql.
+    @Column(name = "user_id", updatable = false)
+    private Long userId;
+    
     // Transaction types enum
     public enum TransactionType {
         INCOME, EXPENSE
@@ -84,7 +93,7 @@ public class Transaction {
         this.amount = amount;
         this.transactionType = transactionType;
         this.status = status;
-        this.account = account;
+        setAccount(account);
         this.transactionDate = LocalDateTime.now();
     }
     
@@ -135,5 +144,10 @@ public class Transaction {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
     public Account getAccount() { return account; }
-    public void setAccount(Account account) { this.account = account; }
+    public void setAccount(Account account) {
+        this.account = account;
+        this.userId = account != null && account.getUser() != null ? account.getUser().getId() : null;
+    }
+    
+    public Long getUserId() { return userId; }
 }
\ No newline at end of file
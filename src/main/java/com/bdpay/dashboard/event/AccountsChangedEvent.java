@@ -0,0 +1,5 @@
+package com.bdpay.dashboard.event;
+
+// Published whenever a user's accounts or balances change. Listeners that care about committed
+// state use @TransactionalEventListener so they only see changes that actually committed.
+public record AccountsChangedEvent(Long userId, String reason) {}
@@ -0,0 +1,7 @@
+package com.bdpay.dashboard.event;
+
+import com.bdpay.dashboard.dto.TransactionView;
+
+// Published when a transaction is created or its status changes, carrying the saved row so
+// listeners need no query of their own. Like AccountsChangedEvent, meant for after-commit listeners.
+public record TransactionChangedEvent(Long userId, TransactionView transaction) {}
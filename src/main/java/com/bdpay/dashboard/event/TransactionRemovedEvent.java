@@ -0,0 +1,5 @@
+package com.bdpay.dashboard.event;
+
+// Published when a (pending or failed) transaction is deleted. Like TransactionChangedEvent,
+// meant for after-commit listeners.
+public record TransactionRemovedEvent(Long userId, Long transactionId) {}
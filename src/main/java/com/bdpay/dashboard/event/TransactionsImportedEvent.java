@@ -0,0 +1,5 @@
+package com.bdpay.dashboard.event;
+
+// Published once per imported chunk instead of a TransactionChangedEvent per row: listeners drop
+// or refetch the user's transactions as a whole. Like AccountsChangedEvent, meant for after-commit listeners.
+public record TransactionsImportedEvent(Long userId, int count) {}
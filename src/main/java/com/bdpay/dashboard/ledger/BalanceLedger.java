@@ -0,0 +1,501 @@
+package com.bdpay.dashboard.ledger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.config.SecondLevelCacheInvalidator;
+import com.bdpay.dashboard.dto.AccountView;
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.ledger.BalanceWriteAheadLog.Change;
+import com.bdpay.dashboard.ledger.BalanceWriteAheadLog.Recovery;
+import com.bdpay.dashboard.ledger.BalanceWriteAheadLog.Settlement;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Optional in-memory balance ledger (ledger.enabled=true). Balances of accounts touched since
+// startup live here and are authoritative: mutations take striped locks, are appended to the
+// write-ahead log and applied in memory, and the accounts table is brought up to date by a
+// batched write-behind flush. On startup anything left in the log is replayed into the table.
+// Settlements are applied only once their database transaction commits, and at most once.
+@Component
+@ConditionalOnProperty(name = "ledger.enabled", havingValue = "true")
+public class BalanceLedger {
+
+    private static final String UPDATE_BALANCES =
+        "UPDATE accounts SET current_balance = ?, previous_balance = ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+
+    @Value("${ledger.lock-stripes:1024}")
+    private int lockStripes;
+
+    @Value("${ledger.wal.directory:data/ledger-wal}")
+    private String walDirectory;
+
+    // Force every append to disk; turning this off trades crash durability for latency
+    @Value("${ledger.wal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${ledger.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private ReentrantLock[] locks;
+    private BalanceWriteAheadLog writeAheadLog;
+    private TransactionTemplate flushTransaction;
+
+    private final Map<Long, LedgerEntry> entries = new ConcurrentHashMap<>();
+    // Accounts whose in-memory balance is ahead of the accounts table
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Prepared settlements awaiting their commit, by transaction id, with the oldest log segment
+    // that may hold them; flushes keep those segments
+    private final Map<Long, Long> unresolvedSettlements = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Statistics
+    private final LongAdder mutations = new LongAdder();
+    private final LongAdder compensations = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder totalMutationNanos = new LongAdder();
+
+    @PostConstruct
+    void init() throws IOException {
+        locks = new ReentrantLock[Integer.highestOneBit(Math.max(lockStripes, 1))];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        flushTransaction = new TransactionTemplate(transactionManager);
+        writeAheadLog = new BalanceWriteAheadLog(Path.of(walDirectory), fsync);
+
+        // Replay whatever the last run did not get into the table, then start a clean log
+        Map<Long, Change> recovered = recoverBalances(writeAheadLog.recover());
+        if (!recovered.isEmpty()) {
+            writeBalances(new ArrayList<>(recovered.values()));
+            System.out.println("Ledger recovered " + recovered.size() + " account balances from " + walDirectory);
+        }
+        writeAheadLog.deleteSegmentsUpTo(Long.MAX_VALUE);
+        writeAheadLog.open();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        flush();
+        writeAheadLog.close();
+    }
+
+    // Add (or with a negative delta, subtract) a settled transaction's amount once the caller's
+    // database transaction commits. The delta is logged as prepared before that commit; if the
+    // process dies in between, recovery applies it only if the transaction is SUCCESS in the table.
+    public void settle(Long transactionId, Long accountId, BigDecimal delta) {
+        entry(accountId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mutateDelta(accountId, delta, transactionId);
+            return;
+        }
+
+        // Registered before the append, so a flush that rotates past it keeps its segment
+        unresolvedSettlements.put(transactionId, writeAheadLog.getSegment());
+        try {
+            writeAheadLog.appendPrepared(new Settlement(transactionId, accountId, delta));
+        } catch (IOException e) {
+            unresolvedSettlements.remove(transactionId);
+            throw new RuntimeException("Ledger write-ahead log unavailable: " + e.getMessage());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    mutateDelta(accountId, delta, transactionId);
+                    unresolvedSettlements.remove(transactionId);
+                } catch (RuntimeException e) {
+                    // The prepared record stays in the log and is applied on the next startup
+                    System.out.println("Ledger could not apply settlement " + transactionId
+                        + " after commit, left for recovery: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    unresolvedSettlements.remove(transactionId);
+                }
+            }
+        });
+    }
+
+    // Set an absolute balance; returns the new balance
+    public BigDecimal setBalance(Long accountId, BigDecimal newBalance) {
+        long started = System.nanoTime();
+        LedgerEntry entry = entry(accountId);
+        BigDecimal delta;
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            delta = newBalance.subtract(entry.currentBalance);
+            commit(List.of(new Change(accountId, newBalance, entry.currentBalance)), null);
+        } finally {
+            lock.unlock();
+        }
+        recordMutation(started);
+        compensateOnRollback(Map.of(accountId, delta));
+        return newBalance;
+    }
+
+    // Move money between two accounts of the same user
+    public void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Transfer amount must be positive");
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
+
+        long started = System.nanoTime();
+        LedgerEntry source = entry(fromAccountId);
+        LedgerEntry target = entry(toAccountId);
+        if (!source.userId.equals(target.userId)) {
+            throw new RuntimeException("Can only transfer between accounts of the same user");
+        }
+
+        List<ReentrantLock> held = lockAll(fromAccountId, toAccountId);
+        try {
+            if (source.currentBalance.compareTo(amount) < 0) {
+                throw new RuntimeException("Insufficient balance for transfer");
+            }
+            commit(List.of(
+                new Change(fromAccountId, source.currentBalance.subtract(amount), source.currentBalance),
+                new Change(toAccountId, target.currentBalance.add(amount), target.currentBalance)
+            ), null);
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+        recordMutation(started);
+
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.put(fromAccountId, amount.negate());
+        deltas.put(toAccountId, amount);
+        compensateOnRollback(deltas);
+    }
+
+    // Replace an entity's balances with the ledger's when the ledger is ahead of the table. The
+    // entity is detached first so the overlay is never written back by dirty checking.
+    public void overlay(Account account) {
+        LedgerEntry entry = entries.get(account.getId());
+        if (entry == null) {
+            return;
+        }
+        if (entityManager.contains(account)) {
+            entityManager.detach(account);
+        }
+        ReentrantLock lock = lockFor(account.getId());
+        lock.lock();
+        try {
+            account.setCurrentBalance(entry.currentBalance);
+            account.setPreviousBalance(entry.previousBalance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Copy of a projected account card carrying the ledger's balances
+    public AccountView overlay(AccountView account) {
+        LedgerEntry entry = entries.get(account.id());
+        if (entry == null) {
+            return account;
+        }
+        ReentrantLock lock = lockFor(account.id());
+        lock.lock();
+        try {
+            return account.withBalances(entry.currentBalance, entry.previousBalance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drop an account (deleted) from the ledger
+    public void forget(Long accountId) {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            entries.remove(accountId);
+            dirty.remove(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Write-behind: rotate the log, snapshot dirty balances, batch them into the accounts table,
+    // then drop the log segments the table now covers
+    @Scheduled(fixedDelayString = "${ledger.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            long closedSegment = writeAheadLog.rotate();
+
+            List<Change> snapshot = new ArrayList<>(dirty.size());
+            for (Long accountId : List.copyOf(dirty)) {
+                ReentrantLock lock = lockFor(accountId);
+                lock.lock();
+                try {
+                    dirty.remove(accountId);
+                    LedgerEntry entry = entries.get(accountId);
+                    if (entry != null) {
+                        snapshot.add(new Change(accountId, entry.currentBalance, entry.previousBalance));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            try {
+                writeBalances(snapshot);
+            } catch (RuntimeException e) {
+                // Keep the log segments and retry these accounts on the next flush
+                snapshot.forEach(change -> dirty.add(change.accountId()));
+                failedFlushes.increment();
+                System.out.println("Ledger flush failed, will retry: " + e.getMessage());
+                return;
+            }
+
+            long oldestUnresolved = unresolvedSettlements.values().stream()
+                .min(Long::compare)
+                .orElse(Long.MAX_VALUE);
+            writeAheadLog.deleteSegmentsUpTo(Math.min(closedSegment, oldestUnresolved - 1));
+            flushes.increment();
+            flushedRows.add(snapshot.size());
+        } catch (IOException e) {
+            failedFlushes.increment();
+            System.out.println("Ledger write-ahead log error during flush: " + e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Get mutation and write-behind figures
+    public Map<String, Object> getStatistics() {
+        long mutated = mutations.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedAccounts", entries.size());
+        stats.put("pendingAccounts", dirty.size());
+        stats.put("unresolvedSettlements", unresolvedSettlements.size());
+        stats.put("mutations", mutated);
+        stats.put("compensations", compensations.sum());
+        stats.put("averageMutationMicros", mutated > 0 ? totalMutationNanos.sum() / 1000.0 / mutated : 0.0);
+        stats.put("flushes", flushes.sum());
+        stats.put("flushedRows", flushedRows.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("walSequence", writeAheadLog.getSequence());
+        return stats;
+    }
+
+    // transactionId tags the log record as the committed half of a settlement (null otherwise)
+    private BigDecimal mutateDelta(Long accountId, BigDecimal delta, Long transactionId) {
+        long started = System.nanoTime();
+        LedgerEntry entry = entry(accountId);
+        BigDecimal balance;
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            balance = entry.currentBalance.add(delta);
+            commit(List.of(new Change(accountId, balance, entry.currentBalance)), transactionId);
+        } finally {
+            lock.unlock();
+        }
+        recordMutation(started);
+        return balance;
+    }
+
+    // Caller holds the stripe locks of every account in changes. Marking dirty before the append
+    // guarantees a concurrent flush either waits for this mutation or picks it up next time.
+    private void commit(List<Change> changes, Long transactionId) {
+        for (Change change : changes) {
+            dirty.add(change.accountId());
+        }
+        try {
+            if (transactionId != null) {
+                writeAheadLog.appendCommitted(transactionId, changes);
+            } else {
+                writeAheadLog.append(changes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ledger write-ahead log unavailable: " + e.getMessage());
+        }
+        for (Change change : changes) {
+            LedgerEntry entry = entries.get(change.accountId());
+            if (entry != null) {
+                entry.previousBalance = change.previousBalance();
+                entry.currentBalance = change.currentBalance();
+            }
+        }
+    }
+
+    // If the caller's database transaction rolls back, undo the ledger changes it made
+    private void compensateOnRollback(Map<Long, BigDecimal> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deltas.forEach((accountId, delta) -> mutateDelta(accountId, delta.negate(), null));
+                    compensations.increment();
+                }
+            }
+        });
+    }
+
+    // Latest logged balances plus prepared settlements that never got their committed record:
+    // those whose transaction is SUCCESS in the table committed just before a crash and are
+    // applied; the rest never committed and are dropped
+    Map<Long, Change> recoverBalances(Recovery recovery) {
+        Map<Long, Change> balances = new LinkedHashMap<>(recovery.balances());
+        int applied = 0;
+        int dropped = 0;
+        for (Settlement settlement : recovery.prepared().values()) {
+            if (recovery.committed().contains(settlement.transactionId())) {
+                continue;
+            }
+            Integer settled = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE id = ? AND status = 'SUCCESS'",
+                Integer.class, settlement.transactionId());
+            if (settled == null || settled == 0) {
+                dropped++;
+                continue;
+            }
+            Change last = balances.get(settlement.accountId());
+            BigDecimal base = last != null ? last.currentBalance() : jdbcTemplate.query(
+                "SELECT current_balance FROM accounts WHERE id = ?",
+                (rs, rowNum) -> rs.getBigDecimal("current_balance"), settlement.accountId())
+                .stream().findFirst().orElse(null);
+            if (base == null) {
+                dropped++;
+                continue;
+            }
+            balances.put(settlement.accountId(),
+                new Change(settlement.accountId(), base.add(settlement.delta()), base));
+            applied++;
+        }
+        if (applied + dropped > 0) {
+            System.out.println("Ledger recovery applied " + applied + " and dropped " + dropped
+                + " prepared settlements");
+        }
+        return balances;
+    }
+
+    // Ledger entry for an account, loading it from the table on first use
+    private LedgerEntry entry(Long accountId) {
+        LedgerEntry entry = entries.get(accountId);
+        if (entry != null) {
+            return entry;
+        }
+        List<LedgerEntry> loaded = jdbcTemplate.query(
+            "SELECT user_id, current_balance, previous_balance FROM accounts WHERE id = ?",
+            (rs, rowNum) -> new LedgerEntry(rs.getLong("user_id"), rs.getBigDecimal("current_balance"),
+                rs.getBigDecimal("previous_balance")),
+            accountId);
+        if (loaded.isEmpty()) {
+            throw new RuntimeException("Account not found with id: " + accountId);
+        }
+        LedgerEntry existing = entries.putIfAbsent(accountId, loaded.get(0));
+        return existing != null ? existing : loaded.get(0);
+    }
+
+    // Batch the balances into the accounts table, then drop the now stale cached Account rows
+    private void writeBalances(List<Change> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        flushTransaction.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(UPDATE_BALANCES, changes, flushBatchSize, (ps, change) -> {
+                ps.setBigDecimal(1, change.currentBalance());
+                ps.setBigDecimal(2, change.previousBalance());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, change.accountId());
+            }));
+        for (Change change : changes) {
+            LedgerEntry entry = entries.get(change.accountId());
+            secondLevelCacheInvalidator.evictAccount(change.accountId(), entry != null ? entry.userId : null);
+        }
+    }
+
+    private ReentrantLock lockFor(Long accountId) {
+        return locks[stripe(accountId)];
+    }
+
+    // Lock the stripes of several accounts in ascending stripe order (no deadlocks)
+    private List<ReentrantLock> lockAll(Long... accountIds) {
+        Set<Integer> stripes = new TreeSet<>();
+        for (Long accountId : accountIds) {
+            stripes.add(stripe(accountId));
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+            held.add(locks[stripe]);
+        }
+        return held;
+    }
+
+    private int stripe(Long accountId) {
+        return Long.hashCode(accountId) & (locks.length - 1);
+    }
+
+    private void recordMutation(long startedNanos) {
+        mutations.increment();
+        totalMutationNanos.add(System.nanoTime() - startedNanos);
+    }
+
+    // Authoritative balances of one account; written under its stripe lock
+    private static final class LedgerEntry {
+        private final Long userId;
+        private volatile BigDecimal currentBalance;
+        private volatile BigDecimal previousBalance;
+
+        private LedgerEntry(Long userId, BigDecimal currentBalance, BigDecimal previousBalance) {
+            this.userId = userId;
+            this.currentBalance = currentBalance;
+            this.previousBalance = previousBalance;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.bdpay.dashboard.ledger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only log of ledger mutations, split into numbered segment files. Each record holds the
+// absolute balances it produced, so replay is idempotent and the last record per account wins.
+// Records are length-prefixed and CRC-checked; a torn record at the tail (crash mid-write) ends
+// replay. Segments are deleted once the balances they cover are in the accounts table.
+// A settlement made inside a database transaction is logged twice: a "prepared" record with its
+// delta before the database commit, and its balances tagged with the transaction id once the
+// commit has happened. Recovery asks the database about prepared settlements with no such record.
+public class BalanceWriteAheadLog {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // Record kinds, written where an untagged record has its (never negative) change count
+    private static final int PREPARED = -1;
+    private static final int COMMITTED = -2;
+
+    // One account's balances after a mutation
+    public record Change(Long accountId, BigDecimal currentBalance, BigDecimal previousBalance) {}
+
+    // A settlement logged before its database transaction commits
+    public record Settlement(long transactionId, Long accountId, BigDecimal delta) {}
+
+    // What the surviving segments hold: latest balances per account, prepared settlements by
+    // transaction id, and the transaction ids whose balances were logged after their commit
+    public record Recovery(Map<Long, Change> balances, Map<Long, Settlement> prepared, Set<Long> committed) {}
+
+    private final Path directory;
+    private final boolean fsync;
+
+    // A lock rather than synchronized: writers may be virtual threads, and file I/O inside a
+    // monitor would pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long segment;
+    private long sequence;
+
+    public BalanceWriteAheadLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    // Read every surviving segment
+    public Recovery recover() throws IOException {
+        Files.createDirectories(directory);
+        Recovery recovery = new Recovery(new LinkedHashMap<>(), new LinkedHashMap<>(), new HashSet<>());
+        for (Path segmentFile : segments()) {
+            try (InputStream in = Files.newInputStream(segmentFile)) {
+                DataInputStream data = new DataInputStream(in);
+                while (readRecord(data, recovery)) {
+                    // keep reading
+                }
+            }
+        }
+        return recovery;
+    }
+
+    // Start a fresh segment after every existing one
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = segments();
+            segment = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1));
+            openNextSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Durably append one mutation (all legs of it in a single record)
+    public long append(List<Change> changes) throws IOException {
+        return write(encode(null, changes));
+    }
+
+    // Durably append the balances a committed settlement produced
+    public long appendCommitted(long transactionId, List<Change> changes) throws IOException {
+        return write(encode(transactionId, changes));
+    }
+
+    // Durably append a settlement whose database transaction has not committed yet
+    public long appendPrepared(Settlement settlement) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeInt(PREPARED);
+        payload.writeLong(settlement.transactionId());
+        payload.writeLong(settlement.accountId());
+        payload.writeUTF(settlement.delta().toPlainString());
+        return write(frame(payloadBytes.toByteArray()));
+    }
+
+    private long write(ByteBuffer record) throws IOException {
+        lock.lock();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            return ++sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Close the current segment and start a new one; returns the number of the closed segment
+    public long rotate() throws IOException {
+        lock.lock();
+        try {
+            long closed = segment;
+            channel.force(false);
+            channel.close();
+            openNextSegment();
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove segments up to and including the given number
+    public void deleteSegmentsUpTo(long lastSegment) throws IOException {
+        for (Path segmentFile : segments()) {
+            if (segmentNumber(segmentFile) <= lastSegment) {
+                Files.deleteIfExists(segmentFile);
+            }
+        }
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Number of the segment appends currently go to; only ever grows
+    public long getSegment() {
+        lock.lock();
+        try {
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segment++;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long segmentNumber(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Record layout: [int payload length][payload][long crc32 of payload]
+    // Payload: [int change count] then per change [long account id][utf current][utf previous].
+    // A committed settlement starts with [int COMMITTED][long transaction id] before the count;
+    // a prepared one is [int PREPARED][long transaction id][long account id][utf delta].
+    private static ByteBuffer encode(Long transactionId, List<Change> changes) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64 * changes.size() + 16);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        if (transactionId != null) {
+            payload.writeInt(COMMITTED);
+            payload.writeLong(transactionId);
+        }
+        payload.writeInt(changes.size());
+        for (Change change : changes) {
+            payload.writeLong(change.accountId());
+            payload.writeUTF(change.currentBalance().toPlainString());
+            payload.writeUTF(change.previousBalance() != null ? change.previousBalance().toPlainString() : "");
+        }
+        return frame(payloadBytes.toByteArray());
+    }
+
+    private static ByteBuffer frame(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        ByteBuffer record = ByteBuffer.allocate(4 + bytes.length + 8);
+        record.putInt(bytes.length).put(bytes).putLong(crc.getValue());
+        return record.flip();
+    }
+
+    // Add the next record to the recovery; false at the end of the segment or at a torn/corrupt record
+    private static boolean readRecord(DataInputStream in, Recovery recovery) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > 1 << 20) {
+                return false;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            long expectedCrc = in.readLong();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if (crc.getValue() != expectedCrc) {
+                return false;
+            }
+
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes));
+            int count = payload.readInt();
+            if (count == PREPARED) {
+                long transactionId = payload.readLong();
+                recovery.prepared().put(transactionId,
+                    new Settlement(transactionId, payload.readLong(), new BigDecimal(payload.readUTF())));
+                return true;
+            }
+            if (count == COMMITTED) {
+                recovery.committed().add(payload.readLong());
+                count = payload.readInt();
+            }
+            for (int i = 0; i < count; i++) {
+                long accountId = payload.readLong();
+                BigDecimal current = new BigDecimal(payload.readUTF());
+                String previous = payload.readUTF();
+                recovery.balances().put(accountId,
+                    new Change(accountId, current, previous.isEmpty() ? null : new BigDecimal(previous)));
+            }
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+}
@@ -5,13 +5,18 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bdpay.dashboard.dto.AccountSummaryView;
+import com.bdpay.dashboard.dto.AccountView;
 import com.bdpay.dashboard.entity.Account;
 import com.bdpay.dashboard.entity.Account.AccountType;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     
@@ -21,10 +26,22 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     // Find account by user and account type
     Optional<Account> findByUserIdAndAccountType(Long userId, AccountType accountType);
     
+    // Account cards for a user, projected straight into AccountView (dashboard and list endpoints)
+    @Query("SELECT new com.bdpay.dashboard.dto.AccountView(a.id, a.accountName, a.accountType, " +
+           "a.currentBalance, a.previousBalance, a.spendingLimit, a.totalLimit, a.cardNumber, a.cardType, " +
+           "a.createdAt, a.updatedAt) " +
+           "FROM Account a WHERE a.user.id = :userId ORDER BY a.accountType")
+    List<AccountView> findViewsByUserId(@Param("userId") Long userId);
+    
     // Find all accounts with their transactions
     @Query("SELECT a FROM Account a LEFT JOIN FETCH a.transactions WHERE a.user.id = :userId")
     List<Account> findByUserIdWithTransactions(@Param("userId") Long userId);
     
+    // Lock accounts for update in ascending ID order (consistent ordering avoids deadlocks)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :accountIds ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("accountIds") List<Long> accountIds);
+    
     // Calculate total balance for a user
     @Query("SELECT SUM(a.currentBalance) FROM Account a WHERE a.user.id = :userId")
     BigDecimal getTotalBalanceByUserId(@Param("userId") Long userId);
@@ -41,7 +58,7 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findAccountsWithBalanceAbove(@Param("userId") Long userId, @Param("minBalance") BigDecimal minBalance);
     
     // Get account summary for dashboard cards
-    @Query("SELECT a.accountType, a.currentBalance, a.previousBalance " +
+    @Query("SELECT new com.bdpay.dashboard.dto.AccountSummaryView(a.accountType, a.currentBalance, a.previousBalance) " +
            "FROM Account a WHERE a.user.id = :userId ORDER BY a.accountType")
-    List<Object[]> getAccountSummaryByUserId(@Param("userId") Long userId);
+    List<AccountSummaryView> getAccountSummaryByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,56 @@
+package com.bdpay.dashboard.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bdpay.dashboard.entity.DailyCategorySpending;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface DailyCategorySpendingRepository extends JpaRepository<DailyCategorySpending, Long> {
+    
+    // All daily buckets for a user in date order (input for the prefix-sum cube)
+    List<DailyCategorySpending> findByUserIdOrderBySpendingDateAsc(Long userId);
+    
+    // Atomically add a settled expense to its day and category. Shares the user's rollup
+    // lock with the monthly rollup so a rebuild of either is blocked out.
+    // The query space hint stops Hibernate clearing every second-level cache region on execution.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_category_spending"))
+    @Query(value = "WITH rollup_lock AS (SELECT pg_advisory_xact_lock_shared(:lockNamespace, CAST(:userId % 2147483647 AS int))) " +
+                   "INSERT INTO daily_category_spending " +
+                   "(user_id, spending_date, category, total_amount, transaction_count, updated_at) " +
+                   "SELECT :userId, :spendingDate, :category, :amount, 1, now() FROM rollup_lock " +
+                   "ON CONFLICT (user_id, spending_date, category) DO UPDATE SET " +
+                   "total_amount = daily_category_spending.total_amount + EXCLUDED.total_amount, " +
+                   "transaction_count = daily_category_spending.transaction_count + 1, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    void addSpending(
+        @Param("lockNamespace") int lockNamespace,
+        @Param("userId") Long userId,
+        @Param("spendingDate") LocalDate spendingDate,
+        @Param("category") String category,
+        @Param("amount") BigDecimal amount
+    );
+    
+    // Remove all daily buckets for a user (before rebuild or on user deletion)
+    @Modifying
+    @Query("DELETE FROM DailyCategorySpending d WHERE d.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+    
+    // Remove a user's daily buckets from the given day on (before a rebuild that keeps archived months)
+    @Modifying
+    @Query("DELETE FROM DailyCategorySpending d WHERE d.userId = :userId AND d.spendingDate >= :from")
+    void deleteByUserIdFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,68 @@
+package com.bdpay.dashboard.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bdpay.dashboard.dto.MonthlyTotal;
+import com.bdpay.dashboard.entity.MonthlyTransactionRollup;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface MonthlyTransactionRollupRepository extends JpaRepository<MonthlyTransactionRollup, Long> {
+    
+    // Rollup totals for the money flow chart (at most 24 per year)
+    @Query("SELECT new com.bdpay.dashboard.dto.MonthlyTotal(r.month, r.transactionType, r.totalAmount) " +
+           "FROM MonthlyTransactionRollup r WHERE r.userId = :userId AND r.year = :year ORDER BY r.month")
+    List<MonthlyTotal> findMonthlyTotals(@Param("userId") Long userId, @Param("year") Integer year);
+    
+    // All rollup rows for a user (consistency checks)
+    List<MonthlyTransactionRollup> findByUserId(Long userId);
+    
+    // Atomically add a settled amount to its bucket. Takes the user's rollup lock in
+    // shared mode so concurrent settlements proceed while a rebuild is blocked out.
+    // The query space hint stops Hibernate clearing every second-level cache region on execution.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_transaction_rollups"))
+    @Query(value = "WITH rollup_lock AS (SELECT pg_advisory_xact_lock_shared(:lockNamespace, CAST(:userId % 2147483647 AS int))) " +
+                   "INSERT INTO monthly_transaction_rollups " +
+                   "(user_id, rollup_year, rollup_month, transaction_type, total_amount, transaction_count, updated_at) " +
+                   "SELECT :userId, :year, :month, :type, :amount, 1, now() FROM rollup_lock " +
+                   "ON CONFLICT (user_id, rollup_year, rollup_month, transaction_type) DO UPDATE SET " +
+                   "total_amount = monthly_transaction_rollups.total_amount + EXCLUDED.total_amount, " +
+                   "transaction_count = monthly_transaction_rollups.transaction_count + 1, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    void addToRollup(
+        @Param("lockNamespace") int lockNamespace,
+        @Param("userId") Long userId,
+        @Param("year") int year,
+        @Param("month") int month,
+        @Param("type") String type,
+        @Param("amount") BigDecimal amount
+    );
+    
+    // Take the user's rollup lock exclusively (held until the transaction ends)
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:lockNamespace, CAST(:userId % 2147483647 AS int))) l",
+           nativeQuery = true)
+    Integer lockUserRollups(@Param("lockNamespace") int lockNamespace, @Param("userId") Long userId);
+    
+    // Remove all rollup rows for a user (before rebuild or on user deletion)
+    @Modifying
+    @Query("DELETE FROM MonthlyTransactionRollup r WHERE r.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+    
+    // Remove a user's rollup rows from the given month on (before a rebuild that keeps archived months)
+    @Modifying
+    @Query("DELETE FROM MonthlyTransactionRollup r WHERE r.userId = :userId " +
+           "AND (r.year > :year OR (r.year = :year AND r.month >= :month))")
+    void deleteByUserIdFrom(@Param("userId") Long userId, @Param("year") int year, @Param("month") int month);
+}
@@ -3,37 +3,118 @@ package com.bdpay.dashboard.repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.dto.TransactionView;
 import com.bdpay.dashboard.entity.Transaction;
 import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
 import com.bdpay.dashboard.entity.Transaction.TransactionType;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    // Read endpoints select straight into TransactionView: no managed entities, no per-row maps
+    String SELECT_VIEW = "SELECT new com.bdpay.dashboard.dto.TransactionView(t.id, t.businessName, t.category, " +
+                         "t.amount, t.transactionType, t.status, t.description, t.transactionDate, t.createdAt, " +
+                         "t.account.id) FROM Transaction t ";
+    
     // Find transactions by account ID (for transaction table)
-    Page<Transaction> findByAccountIdOrderByTransactionDateDesc(Long accountId, Pageable pageable);
+    @Query(value = SELECT_VIEW + "WHERE t.account.id = :accountId ORDER BY t.transactionDate DESC",
+           countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.account.id = :accountId")
+    Page<TransactionView> findByAccountIdOrderByTransactionDateDesc(@Param("accountId") Long accountId, Pageable pageable);
     
     // Find transactions by user ID across all accounts
-    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId ORDER BY t.transactionDate DESC")
-    Page<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId, Pageable pageable);
+    @Query(value = SELECT_VIEW + "WHERE t.userId = :userId ORDER BY t.transactionDate DESC",
+           countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.userId = :userId")
+    Page<TransactionView> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId, Pageable pageable);
+    
+    // Keyset pagination: newest transactions for a user (walks idx_transactions_user_date)
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findUserTransactionsFirstPage(@Param("userId") Long userId, Limit limit);
+    
+    // Keyset pagination: user transactions older than the (date, id) cursor
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findUserTransactionsBefore(
+        @Param("userId") Long userId,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Limit limit
+    );
+    
+    // Keyset pagination: user transactions newer than the (date, id) cursor, oldest first
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "AND (t.transactionDate > :date OR (t.transactionDate = :date AND t.id > :id)) " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<TransactionView> findUserTransactionsAfter(
+        @Param("userId") Long userId,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Limit limit
+    );
+    
+    // Keyset pagination: newest transactions for an account (walks idx_transactions_account_date)
+    @Query(SELECT_VIEW + "WHERE t.account.id = :accountId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findAccountTransactionsFirstPage(@Param("accountId") Long accountId, Limit limit);
+    
+    // Keyset pagination: account transactions older than the (date, id) cursor
+    @Query(SELECT_VIEW + "WHERE t.account.id = :accountId " +
+           "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findAccountTransactionsBefore(
+        @Param("accountId") Long accountId,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Limit limit
+    );
+    
+    // Keyset pagination: account transactions newer than the (date, id) cursor, oldest first
+    @Query(SELECT_VIEW + "WHERE t.account.id = :accountId " +
+           "AND (t.transactionDate > :date OR (t.transactionDate = :date AND t.id > :id)) " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<TransactionView> findAccountTransactionsAfter(
+        @Param("accountId") Long accountId,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Limit limit
+    );
     
-    // Find recent transactions (last 10)
-    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId ORDER BY t.transactionDate DESC")
-    List<Transaction> findTop10ByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId);
+    // Full history for a user, oldest first, read through a server-side cursor (export). Must run
+    // inside a transaction: PostgreSQL only honours the fetch size with autocommit off.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_VIEW + "WHERE t.userId = :userId " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<TransactionView> streamByUserId(@Param("userId") Long userId);
+    
+    // Count all transactions for a user (only when a total is explicitly requested)
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.userId = :userId")
+    long countByUserId(@Param("userId") Long userId);
+    
+    // Count all transactions for an account
+    long countByAccountId(Long accountId);
     
     // Find transactions by status
     List<Transaction> findByAccountIdAndStatus(Long accountId, TransactionStatus status);
     
     // Find transactions by type and date range
-    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId " +
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
            "AND t.transactionType = :type " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
            "ORDER BY t.transactionDate DESC")
@@ -44,8 +125,8 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         @Param("endDate") LocalDateTime endDate
     );
     
-    // Calculate total income for user in date range
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.account.user.id = :userId " +
+    // Calculate total income for user in date range (index-only on idx_transactions_user_type_date)
+    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.userId = :userId " +
            "AND t.transactionType = 'INCOME' " +
            "AND t.status = 'SUCCESS' " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate")
@@ -56,7 +137,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     );
     
     // Calculate total expenses for user in date range
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.account.user.id = :userId " +
+    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.userId = :userId " +
            "AND t.transactionType = 'EXPENSE' " +
            "AND t.status = 'SUCCESS' " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate")
@@ -66,51 +147,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         @Param("endDate") LocalDateTime endDate
     );
     
-    // Get monthly transaction data for money flow chart
-    @Query("SELECT MONTH(t.transactionDate) as month, " +
+    // Get monthly totals across all years (source for rollup rebuilds and consistency checks)
+    @Query("SELECT YEAR(t.transactionDate) as year, " +
+           "MONTH(t.transactionDate) as month, " +
            "t.transactionType as type, " +
-           "SUM(t.amount) as total " +
+           "SUM(t.amount) as total, " +
+           "COUNT(t) as count " +
            "FROM Transaction t " +
-           "WHERE t.account.user.id = :userId " +
+           "WHERE t.userId = :userId " +
            "AND t.status = 'SUCCESS' " +
-           "AND YEAR(t.transactionDate) = :year " +
-           "GROUP BY MONTH(t.transactionDate), t.transactionType " +
-           "ORDER BY month")
-    List<Object[]> getMonthlyTransactionData(@Param("userId") Long userId, @Param("year") int year);
+           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate), t.transactionType")
+    List<Object[]> getMonthlyRollupSourceData(@Param("userId") Long userId);
+    
+    // Settled expenses grouped by day and category (source for the daily spending rollup)
+    @Query(value = "SELECT CAST(t.transaction_date AS date), COALESCE(t.category, ''), SUM(t.amount), COUNT(*) " +
+                   "FROM transactions t " +
+                   "WHERE t.user_id = :userId " +
+                   "AND t.transaction_type = 'EXPENSE' " +
+                   "AND t.status = 'SUCCESS' " +
+                   "GROUP BY 1, 2",
+           nativeQuery = true)
+    List<Object[]> getDailySpendingSourceData(@Param("userId") Long userId);
     
     // Get spending by category for statistics
-    @Query("SELECT t.category, SUM(t.amount) as total " +
+    @Query("SELECT new com.bdpay.dashboard.dto.CategorySpending(t.category, SUM(t.amount)) " +
            "FROM Transaction t " +
-           "WHERE t.account.user.id = :userId " +
+           "WHERE t.userId = :userId " +
            "AND t.transactionType = 'EXPENSE' " +
            "AND t.status = 'SUCCESS' " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
            "GROUP BY t.category " +
-           "ORDER BY total DESC")
-    List<Object[]> getSpendingByCategory(
+           "ORDER BY SUM(t.amount) DESC")
+    List<CategorySpending> getSpendingByCategory(
         @Param("userId") Long userId,
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
     
     // Find pending transactions that need attention
-    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId " +
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
            "AND t.status = 'PENDING' " +
            "ORDER BY t.transactionDate DESC")
     List<Transaction> findPendingTransactionsByUserId(@Param("userId") Long userId);
     
-    // Count transactions by status for user
+    // Count transactions by status for user (index-only on idx_transactions_user_status)
     @Query("SELECT t.status, COUNT(t) FROM Transaction t " +
-           "WHERE t.account.user.id = :userId " +
+           "WHERE t.userId = :userId " +
            "GROUP BY t.status")
     List<Object[]> getTransactionCountByStatus(@Param("userId") Long userId);
     
-    // Search transactions by business name
-    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId " +
-           "AND LOWER(t.businessName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "ORDER BY t.transactionDate DESC")
-    List<Transaction> searchTransactionsByBusinessName(
+    // Ranked search over business name, category and description. Substring matches and fuzzy
+    // word matches are both answered by the pg_trgm GIN index; business-name prefix hits rank first.
+    @Query(value = "SELECT t.* FROM transactions t " +
+                   "WHERE t.user_id = :userId " +
+                   "AND (lower(t.business_name || ' ' || coalesce(t.category, '') || ' ' || coalesce(t.description, '')) LIKE :containsPattern " +
+                   "OR :term <% lower(t.business_name || ' ' || coalesce(t.category, '') || ' ' || coalesce(t.description, ''))) " +
+                   "ORDER BY CASE WHEN lower(t.business_name) LIKE :prefixPattern THEN 0 ELSE 1 END, " +
+                   "word_similarity(:term, lower(t.business_name || ' ' || coalesce(t.category, '') || ' ' || coalesce(t.description, ''))) DESC, " +
+                   "t.transaction_date DESC, t.id DESC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Transaction> searchTransactions(
         @Param("userId") Long userId,
-        @Param("searchTerm") String searchTerm
+        @Param("term") String term,
+        @Param("containsPattern") String containsPattern,
+        @Param("prefixPattern") String prefixPattern,
+        @Param("limit") int limit,
+        @Param("offset") int offset
     );
-}
\ No newline at end of file
+    
+    // Business names starting with a prefix, most used first (autocomplete)
+    @Query(value = "SELECT t.business_name FROM transactions t " +
+                   "WHERE t.user_id = :userId " +
+                   "AND lower(t.business_name) LIKE :prefixPattern " +
+                   "GROUP BY t.business_name " +
+                   "ORDER BY COUNT(*) DESC, t.business_name " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<String> suggestBusinessNames(
+        @Param("userId") Long userId,
+        @Param("prefixPattern") String prefixPattern,
+        @Param("limit") int limit
+    );
+    
+    // Move a transaction out of PENDING; 0 rows when it already left it. The row lock makes a
+    // concurrent caller wait for this transaction and then match nothing.
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :newStatus WHERE t.id = :id AND t.status = 'PENDING'")
+    int updateStatusIfPending(@Param("id") Long id, @Param("newStatus") TransactionStatus newStatus);
+}
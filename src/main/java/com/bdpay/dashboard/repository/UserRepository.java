@@ -1,5 +1,6 @@
 package com.bdpay.dashboard.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,6 +25,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     Optional<User> findByNameContainingIgnoreCase(@Param("name") String name);
     
+    // All user IDs (for batch jobs such as rollup rebuilds)
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+    
     // Find user with their accounts (to avoid N+1 problem)
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.accounts WHERE u.id = :userId")
     Optional<User> findByIdWithAccounts(@Param("userId") Long userId);
@@ -2,6 +2,7 @@ package com.bdpay.dashboard.security;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -10,6 +11,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,41 +24,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenUtil jwtTokenUtil;
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain chain) throws ServletException, IOException {
-        
-        final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-        Long userId = null;
+        String requestTokenHeader = request.getHeader("Authorization");
+        // Browsers' EventSource can't set headers, so live update streams may carry the token in the URL
+        if (requestTokenHeader == null && request.getServletPath().startsWith("/live/")
+                && request.getParameter("access_token") != null) {
+            requestTokenHeader = "Bearer " + request.getParameter("access_token");
+        }
+
+        Claims claims = null;
 
-        // JWT Token is in the form "Bearer token"
+        // JWT Token is in the form "Bearer token"; parse and verify it exactly once
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-                userId = jwtTokenUtil.getUserIdFromToken(jwtToken);
+                claims = jwtTokenUtil.parseVerifiedClaims(jwtToken);
             } catch (Exception e) {
                 logger.warn("Unable to get JWT Token", e);
             }
         }
 
         // Validate token
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtTokenUtil.isTokenValid(jwtToken)) {
-                UsernamePasswordAuthenticationToken authToken = 
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (claims.getExpiration() != null && claims.getExpiration().after(new Date())) {
+                String username = claims.getSubject();
+                Long userId = claims.get("userId", Long.class);
+
+                UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
+
                 // Add userId to request attributes
                 request.setAttribute("userId", userId);
                 request.setAttribute("username", username);
-                
+
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        
+
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package com.bdpay.dashboard.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Runs BCrypt on a small fixed pool of platform threads (one per core by default) behind a
+// bounded queue. When the queue is full, or a hash waits longer than max-wait-ms, the caller
+// gets HashingRejectedException right away instead of piling up on the request threads.
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${password-hashing.bcrypt-strength:10}")
+    private int strength;
+
+    // 0 means one thread per available core
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${password-hashing.max-queue-depth:64}")
+    private int maxQueueDepth;
+
+    // Queue wait plus hashing time a caller accepts before giving up
+    @Value("${password-hashing.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+    private Timer queueWait;
+    private Timer hashDuration;
+
+    // Compared against when the email is unknown, so a miss costs as much as a wrong password
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueueDepth),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+
+        rejected = Counter.builder("auth.hash.rejected")
+            .description("Password hashes turned away because the hashing queue was full or too slow")
+            .register(meterRegistry);
+        queueWait = Timer.builder("auth.hash.queue.wait")
+            .description("Time a password hash waited for a hashing thread")
+            .register(meterRegistry);
+        hashDuration = Timer.builder("auth.hash.duration")
+            .description("BCrypt time per hash or check")
+            .register(meterRegistry);
+
+        dummyHash = passwordEncoder.encode("bdpay-dummy-password");
+        System.out.println("Password hashing on " + poolSize + " threads, queue depth " + maxQueueDepth
+            + ", BCrypt strength " + strength);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Check a password against its stored hash
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Burn the same BCrypt time as a real check for an email that doesn't exist
+    public void matchesNothing(String rawPassword) {
+        submit(() -> passwordEncoder.matches(rawPassword, dummyHash));
+    }
+
+    // Hash a password at the configured strength
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // True when a stored hash was made with a different cost factor than the configured one
+    public boolean needsRehash(String encodedPassword) {
+        return costOf(encodedPassword) != strength;
+    }
+
+    // Cost factor of a $2a$/$2b$/$2y$ hash, -1 if it isn't one
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T submit(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashDuration.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingRejectedException("Too many login attempts in progress, try again shortly");
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new HashingRejectedException("Password check timed out, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for password check", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // The hashing pool is saturated; callers should answer 503 and let the client retry
+    public static class HashingRejectedException extends RuntimeException {
+        public HashingRejectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.bdpay.dashboard.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Per-caller request rate limit, run right after JwtAuthenticationFilter. Authenticated requests
+// are keyed on the token's userId, anonymous ones (login, registration) on the client address.
+// Each caller has one bucket per route class, kept as a GCRA "theoretical arrival time": a single
+// long updated with compareAndSet, so checking a request takes no lock and allocates nothing.
+// Buckets of idle callers expire, and the number of tracked callers is capped.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Route classes, each with its own rate and burst (rate-limit.<name>.*)
+    public enum RouteClass {
+        AUTH("auth"), READS("reads"), WRITES("writes"), ANALYTICS("analytics");
+
+        private final String key;
+
+        RouteClass(String key) {
+            this.key = key;
+        }
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-clients:200000}")
+    private long maxClients;
+
+    // A caller's buckets are dropped after this long without a request (a refilled bucket
+    // holds no state worth keeping)
+    @Value("${rate-limit.idle-expiry-ms:600000}")
+    private long idleExpiryMs;
+
+    @Value("${rate-limit.auth-paths:/auth/**}")
+    private List<String> authPaths;
+
+    // Chart, statistics, export and the composite dashboard: few calls, each expensive
+    @Value("${rate-limit.analytics-paths:/transactions/chart/**,/transactions/statistics/**,/transactions/export/**,/users/*/statistics,/dashboard/**}")
+    private List<String> analyticsPaths;
+
+    @Value("${rate-limit.exempt-paths:/actuator/**}")
+    private List<String> exemptPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    private Cache<Long, AtomicLongArray> userBuckets;
+    private Cache<String, AtomicLongArray> addressBuckets;
+
+    @PostConstruct
+    void init() {
+        limits.put(RouteClass.AUTH, limit(RouteClass.AUTH, 1, 10));
+        limits.put(RouteClass.READS, limit(RouteClass.READS, 20, 40));
+        limits.put(RouteClass.WRITES, limit(RouteClass.WRITES, 5, 20));
+        limits.put(RouteClass.ANALYTICS, limit(RouteClass.ANALYTICS, 2, 10));
+
+        userBuckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofMillis(idleExpiryMs))
+            .build();
+        addressBuckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofMillis(idleExpiryMs))
+            .build();
+
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejected.put(routeClass, Counter.builder("rate.limit.rejected")
+                .tag("route", routeClass.key)
+                .description("Requests answered with 429 by route class")
+                .register(meterRegistry));
+        }
+        Gauge.builder("rate.limit.tracked.clients", this,
+                filter -> filter.userBuckets.estimatedSize() + filter.addressBuckets.estimatedSize())
+            .description("Callers with a live rate limit bucket")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || matches(exemptPaths, path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        RouteClass routeClass = classify(request);
+        AtomicLongArray buckets = request.getAttribute("userId") instanceof Long userId
+            ? userBuckets.get(userId, id -> newBuckets())
+            : addressBuckets.get(request.getRemoteAddr(), address -> newBuckets());
+
+        long waitNanos = acquire(buckets, routeClass.ordinal(), limits.get(routeClass), System.nanoTime());
+        if (waitNanos > 0) {
+            rejected.get(routeClass).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, retry in " + retryAfterSeconds + "s\"}");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // GCRA: a request is allowed when the bucket's arrival time is no further ahead of now than
+    // the burst allows, and then pushes it one emission interval further. Returns 0 when the
+    // request may proceed, otherwise the nanoseconds until it would.
+    static long acquire(AtomicLongArray buckets, int slot, Limit limit, long now) {
+        while (true) {
+            long arrival = buckets.get(slot);
+            long base = Math.max(arrival, now);
+            long wait = base - limit.burstToleranceNanos() - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (buckets.compareAndSet(slot, arrival, base + limit.intervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    RouteClass classify(HttpServletRequest request) {
+        String path = path(request);
+        if (matches(authPaths, path)) {
+            return RouteClass.AUTH;
+        }
+        if (matches(analyticsPaths, path)) {
+            return RouteClass.ANALYTICS;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? RouteClass.READS : RouteClass.WRITES;
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // Every slot starts "in the past", i.e. with a full bucket
+    private AtomicLongArray newBuckets() {
+        AtomicLongArray buckets = new AtomicLongArray(RouteClass.values().length);
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, Long.MIN_VALUE / 2);
+        }
+        return buckets;
+    }
+
+    private Limit limit(RouteClass routeClass, double defaultRate, int defaultBurst) {
+        double rate = environment.getProperty("rate-limit." + routeClass.key + ".requests-per-second",
+            Double.class, defaultRate);
+        int burst = environment.getProperty("rate-limit." + routeClass.key + ".burst", Integer.class, defaultBurst);
+        if (rate <= 0 || burst < 1) {
+            throw new RuntimeException("Invalid rate limit for " + routeClass.key + ": " + rate
+                + " requests/s, burst " + burst);
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        return new Limit(intervalNanos, intervalNanos * (burst - 1));
+    }
+
+    // Emission interval (1 / rate) and how far ahead of now the arrival time may run (burst - 1
+    // intervals)
+    record Limit(long intervalNanos, long burstToleranceNanos) {
+    }
+}
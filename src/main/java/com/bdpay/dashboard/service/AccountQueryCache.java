@@ -0,0 +1,116 @@
+package com.bdpay.dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bdpay.dashboard.config.ReadReplicaRouting;
+import com.bdpay.dashboard.dto.AccountSummaryView;
+import com.bdpay.dashboard.dto.AccountView;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+// Per-user results of the account card queries: the account list, the total balance and the
+// account summary. Entries are dropped as soon as an AccountsChangedEvent commits; a per-user
+// generation stamp stops a load that raced with the commit from installing the old balances.
+@Component
+public class AccountQueryCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Refills run on the primary: a lagging replica could hand back rows older than the
+    // change that just invalidated the entry
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    @Value("${account-query-cache.max-users:10000}")
+    private long maxUsers;
+
+    // Safety net only; invalidation is event driven
+    @Value("${account-query-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private Cache<Long, List<AccountView>> accountLists;
+    private Cache<Long, BigDecimal> totalBalances;
+    private Cache<Long, List<AccountSummaryView>> accountSummaries;
+
+    private final GenerationStamps generations = new GenerationStamps();
+
+    @PostConstruct
+    void init() {
+        accountLists = register("account-lists", buildCache());
+        totalBalances = register("account-total-balances", buildCache());
+        accountSummaries = register("account-summaries", buildCache());
+    }
+
+    public List<AccountView> getAccounts(Long userId, Supplier<List<AccountView>> loader) {
+        return get(accountLists, userId, loader);
+    }
+
+    public BigDecimal getTotalBalance(Long userId, Supplier<BigDecimal> loader) {
+        return get(totalBalances, userId, loader);
+    }
+
+    public List<AccountSummaryView> getAccountSummary(Long userId, Supplier<List<AccountSummaryView>> loader) {
+        return get(accountSummaries, userId, loader);
+    }
+
+    // Runs once the publishing transaction completes (immediately when there is none). Rollbacks
+    // invalidate too, in case the transaction read its own uncommitted change into the cache.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        generations.advance(event.userId());
+        accountLists.invalidate(event.userId());
+        totalBalances.invalidate(event.userId());
+        accountSummaries.invalidate(event.userId());
+    }
+
+    private <T> T get(Cache<Long, T> cache, Long userId, Supplier<T> loader) {
+        T cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.current(userId);
+        T loaded = readReplicaRouting.onPrimary(loader);
+        cache.put(userId, loaded);
+
+        // A change committed while we were loading: what we read may predate it
+        if (!generations.isCurrent(userId, generation)) {
+            cache.asMap().remove(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private <T> Cache<Long, T> buildCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .recordStats()
+            .build();
+    }
+
+    // cache.gets/puts/evictions via CaffeineCacheMetrics, plus a direct hit ratio gauge
+    private <T> Cache<Long, T> register(String name, Cache<Long, T> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .tag("cache", name)
+            .description("Fraction of lookups served from the cache")
+            .register(meterRegistry);
+        return cache;
+    }
+}
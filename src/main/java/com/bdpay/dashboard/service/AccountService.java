@@ -2,15 +2,22 @@ package com.bdpay.dashboard.service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bdpay.dashboard.dto.AccountSummaryView;
+import com.bdpay.dashboard.dto.AccountView;
 import com.bdpay.dashboard.entity.Account;
 import com.bdpay.dashboard.entity.Account.AccountType;
 import com.bdpay.dashboard.entity.User;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.ledger.BalanceLedger;
 import com.bdpay.dashboard.repository.AccountRepository;
 import com.bdpay.dashboard.repository.UserRepository;
 
@@ -24,35 +31,73 @@ public class AccountService {
     @Autowired
     private UserRepository userRepository;
     
-    // Get all accounts for a user (for dashboard cards)
+    @Autowired
+    private AccountTransferEngine accountTransferEngine;
+    
+    @Autowired
+    private AccountQueryCache accountQueryCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Present only when ledger.enabled=true; it then owns every balance mutation
+    @Autowired(required = false)
+    private BalanceLedger balanceLedger;
+    
+    // Get all accounts for a user
+    @Transactional(readOnly = true)
     public List<Account> getUserAccounts(Long userId) {
-        return accountRepository.findByUserIdOrderByAccountTypeAsc(userId);
+        return withLedgerBalances(accountRepository.findByUserIdOrderByAccountTypeAsc(userId));
+    }
+    
+    // Get account cards for a user (dashboard and list endpoints), cached until the user's accounts change
+    @Transactional(readOnly = true)
+    public List<AccountView> getUserAccountViews(Long userId) {
+        return accountQueryCache.getAccounts(userId, () ->
+            withLedgerBalanceViews(accountRepository.findViewsByUserId(userId)));
+    }
+    
+    // Current account cards straight from the primary, bypassing the query cache (live updates)
+    public List<AccountView> getCurrentAccountViews(Long userId) {
+        return withLedgerBalanceViews(accountRepository.findViewsByUserId(userId));
     }
     
     // Get accounts with transactions
+    @Transactional(readOnly = true)
     public List<Account> getUserAccountsWithTransactions(Long userId) {
-        return accountRepository.findByUserIdWithTransactions(userId);
+        return withLedgerBalances(accountRepository.findByUserIdWithTransactions(userId));
     }
     
     // Get specific account by ID
+    @Transactional(readOnly = true)
     public Optional<Account> getAccountById(Long accountId) {
-        return accountRepository.findById(accountId);
+        return accountRepository.findById(accountId).map(this::withLedgerBalance);
     }
     
     // Get account by user and type
+    @Transactional(readOnly = true)
     public Optional<Account> getAccountByUserAndType(Long userId, AccountType accountType) {
-        return accountRepository.findByUserIdAndAccountType(userId, accountType);
+        return accountRepository.findByUserIdAndAccountType(userId, accountType).map(this::withLedgerBalance);
     }
     
     // Get wallet account specifically
+    @Transactional(readOnly = true)
     public Optional<Account> getWalletAccount(Long userId) {
-        return accountRepository.findWalletByUserId(userId);
+        return accountRepository.findWalletByUserId(userId).map(this::withLedgerBalance);
     }
     
-    // Calculate total balance for user
+    // Calculate total balance for user, cached until the user's accounts change
+    @Transactional(readOnly = true)
     public BigDecimal getTotalBalance(Long userId) {
-        BigDecimal total = accountRepository.getTotalBalanceByUserId(userId);
-        return total != null ? total : BigDecimal.ZERO;
+        return accountQueryCache.getTotalBalance(userId, () -> {
+            if (balanceLedger != null) {
+                return getUserAccountViews(userId).stream()
+                    .map(AccountView::currentBalance)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            }
+            BigDecimal total = accountRepository.getTotalBalanceByUserId(userId);
+            return total != null ? total : BigDecimal.ZERO;
+        });
     }
     
     // Create new account
@@ -82,12 +127,44 @@ public class AccountService {
             account.setCardNumber("**** **** **** 1234"); // Masked number
         }
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountsChanged(userId, "account-created");
+        return saved;
     }
     
-    // Update account
-    public Account updateAccount(Account account) {
-        return accountRepository.save(account);
+    // Update account (null fields are left as they are; limits and card type apply to wallets only)
+    public Account updateAccount(Long accountId, String accountName, BigDecimal currentBalance,
+                                 BigDecimal spendingLimit, BigDecimal totalLimit, String cardType) {
+        Account account = accountRepository.findById(accountId)
+            .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
+        
+        if (accountName != null) {
+            account.setAccountName(accountName);
+        }
+        if (account.getAccountType() == AccountType.WALLET) {
+            if (spendingLimit != null) {
+                account.setSpendingLimit(spendingLimit);
+            }
+            if (totalLimit != null) {
+                account.setTotalLimit(totalLimit);
+            }
+            if (cardType != null) {
+                account.setCardType(cardType);
+            }
+        }
+        
+        // With the ledger on, the balance goes through it like updateBalance, never through JPA
+        if (currentBalance != null && balanceLedger == null) {
+            account.setPreviousBalance(account.getCurrentBalance());
+            account.setCurrentBalance(currentBalance);
+        }
+        Account saved = accountRepository.save(account);
+        if (currentBalance != null && balanceLedger != null) {
+            balanceLedger.setBalance(accountId, currentBalance);
+        }
+        
+        accountsChanged(saved.getUser().getId(), "account-updated");
+        return withLedgerBalance(saved);
     }
 
     // Delete account
@@ -101,9 +178,14 @@ public class AccountService {
         }
         
         accountRepository.delete(account);
+        if (balanceLedger != null) {
+            balanceLedger.forget(accountId);
+        }
+        accountsChanged(account.getUser().getId(), "account-deleted");
     }
 
     // Check if account can be deleted
+    @Transactional(readOnly = true)
     public boolean canDeleteAccount(Long accountId) {
         Account account = accountRepository.findById(accountId)
             .orElseThrow(() -> new RuntimeException("Account not found"));
@@ -116,11 +198,19 @@ public class AccountService {
         Account account = accountRepository.findById(accountId)
             .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
         
+        if (balanceLedger != null) {
+            balanceLedger.setBalance(accountId, newBalance);
+            accountsChanged(account.getUser().getId(), "balance-updated");
+            return withLedgerBalance(account);
+        }
+        
         // Store previous balance for trend calculation
         account.setPreviousBalance(account.getCurrentBalance());
         account.setCurrentBalance(newBalance);
         
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountsChanged(saved.getUser().getId(), "balance-updated");
+        return saved;
     }
     
     // Update spending limit (for wallet accounts)
@@ -133,7 +223,9 @@ public class AccountService {
         }
         
         account.setSpendingLimit(newLimit);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountsChanged(saved.getUser().getId(), "spending-limit-updated");
+        return saved;
     }
     
     // Initialize default accounts for new user
@@ -148,36 +240,62 @@ public class AccountService {
         createAccount(userId, "Wallet", AccountType.WALLET, new BigDecimal("1550.62"));
     }
     
-    // Get account summary for dashboard
-    public List<Object[]> getAccountSummary(Long userId) {
-        return accountRepository.getAccountSummaryByUserId(userId);
+    // Get account summary for dashboard, cached until the user's accounts change
+    @Transactional(readOnly = true)
+    public List<AccountSummaryView> getAccountSummary(Long userId) {
+        return accountQueryCache.getAccountSummary(userId, () -> {
+            if (balanceLedger != null) {
+                return getUserAccountViews(userId).stream()
+                    .map(a -> new AccountSummaryView(a.accountType(), a.currentBalance(), a.previousBalance()))
+                    .toList();
+            }
+            return List.copyOf(accountRepository.getAccountSummaryByUserId(userId));
+        });
     }
     
-    // Transfer money between accounts
+    // Transfer money between accounts (the engine manages its own transactions and retries)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void transferMoney(Long fromAccountId, Long toAccountId, BigDecimal amount) {
-        Account fromAccount = accountRepository.findById(fromAccountId)
-            .orElseThrow(() -> new RuntimeException("Source account not found"));
-        Account toAccount = accountRepository.findById(toAccountId)
-            .orElseThrow(() -> new RuntimeException("Destination account not found"));
-        
-        // Check if accounts belong to same user
-        if (!fromAccount.getUser().getId().equals(toAccount.getUser().getId())) {
-            throw new RuntimeException("Can only transfer between accounts of the same user");
+        if (balanceLedger != null) {
+            balanceLedger.transfer(fromAccountId, toAccountId, amount);
+            // Both accounts belong to the same user (checked by the transfer)
+            accountRepository.findById(fromAccountId)
+                .ifPresent(account -> accountsChanged(account.getUser().getId(), "transfer"));
+            return;
         }
-        
-        // Check sufficient balance
-        if (fromAccount.getCurrentBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance for transfer");
+        // The engine announces the change from inside its own transaction
+        accountTransferEngine.transfer(fromAccountId, toAccountId, amount);
+    }
+    
+    // Get ledger figures (empty when the ledger is disabled)
+    public Optional<Map<String, Object>> getLedgerStatistics() {
+        return Optional.ofNullable(balanceLedger).map(BalanceLedger::getStatistics);
+    }
+    
+    // Announce a change to a user's accounts; cache invalidation and live updates run after commit
+    private void accountsChanged(Long userId, String reason) {
+        eventPublisher.publishEvent(new AccountsChangedEvent(userId, reason));
+    }
+    
+    // Show ledger balances for accounts the ledger is tracking
+    private List<Account> withLedgerBalances(List<Account> accounts) {
+        if (balanceLedger != null) {
+            accounts.forEach(balanceLedger::overlay);
         }
-        
-        // Perform transfer
-        fromAccount.setPreviousBalance(fromAccount.getCurrentBalance());
-        fromAccount.setCurrentBalance(fromAccount.getCurrentBalance().subtract(amount));
-        
-        toAccount.setPreviousBalance(toAccount.getCurrentBalance());
-        toAccount.setCurrentBalance(toAccount.getCurrentBalance().add(amount));
-        
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        return accounts;
+    }
+    
+    private List<AccountView> withLedgerBalanceViews(List<AccountView> accounts) {
+        if (balanceLedger == null) {
+            return List.copyOf(accounts);
+        }
+        return accounts.stream().map(balanceLedger::overlay).toList();
+    }
+    
+    private Account withLedgerBalance(Account account) {
+        if (balanceLedger != null) {
+            balanceLedger.overlay(account);
+        }
+        return account;
     }
 }
@@ -0,0 +1,229 @@
+package com.bdpay.dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.OptimisticLockException;
+
+// Moves money between accounts. Transfers run optimistically against Account.version with
+// bounded, jittered retries; accounts that keep conflicting are treated as hot and switch
+// to row locks taken in ascending ID order so concurrent transfers cannot deadlock.
+@Service
+public class AccountTransferEngine {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${transfer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${transfer.initial-backoff-ms:2}")
+    private long initialBackoffMs;
+
+    @Value("${transfer.max-backoff-ms:50}")
+    private long maxBackoffMs;
+
+    // Conflicts within the window after which an account takes the pessimistic path
+    @Value("${transfer.hot-account.conflict-threshold:3}")
+    private int hotConflictThreshold;
+
+    @Value("${transfer.hot-account.window-ms:10000}")
+    private long hotWindowMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Entries expire a window after their first conflict, so accounts that cool down are dropped
+    private Cache<Long, ConflictWindow> conflictWindows;
+
+    // Throughput statistics
+    private final LongAdder completedTransfers = new LongAdder();
+    private final LongAdder failedTransfers = new LongAdder();
+    private final LongAdder optimisticConflicts = new LongAdder();
+    private final LongAdder pessimisticTransfers = new LongAdder();
+    private final LongAdder totalTransferNanos = new LongAdder();
+    private volatile long statisticsStartedAt = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        conflictWindows = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(hotWindowMs))
+            .build();
+    }
+
+    // Transfer money between two accounts of the same user
+    public void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Transfer amount must be positive");
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (isHot(fromAccountId) || isHot(toAccountId)) {
+                transferPessimistic(fromAccountId, toAccountId, amount);
+            } else {
+                transferOptimistic(fromAccountId, toAccountId, amount);
+            }
+            completedTransfers.increment();
+        } catch (RuntimeException e) {
+            failedTransfers.increment();
+            throw e;
+        } finally {
+            totalTransferNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // Read both rows, update in memory and let the version check catch concurrent writers
+    private void transferOptimistic(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Account fromAccount = accountRepository.findById(fromAccountId)
+                        .orElseThrow(() -> new RuntimeException("Source account not found"));
+                    Account toAccount = accountRepository.findById(toAccountId)
+                        .orElseThrow(() -> new RuntimeException("Destination account not found"));
+                    applyTransfer(fromAccount, toAccount, amount);
+                });
+                return;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                optimisticConflicts.increment();
+                recordConflict(fromAccountId);
+                recordConflict(toAccountId);
+                if (attempt < maxAttempts) {
+                    backoff(attempt);
+                }
+            }
+        }
+
+        // Retries exhausted: the pair is contended, serialize on row locks instead
+        transferPessimistic(fromAccountId, toAccountId, amount);
+    }
+
+    // Lock both rows (lowest ID first) and update under the lock
+    private void transferPessimistic(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        pessimisticTransfers.increment();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> orderedIds = fromAccountId < toAccountId
+                ? List.of(fromAccountId, toAccountId)
+                : List.of(toAccountId, fromAccountId);
+            List<Account> locked = accountRepository.findAllByIdForUpdate(orderedIds);
+
+            Account fromAccount = locked.stream()
+                .filter(a -> a.getId().equals(fromAccountId)).findFirst()
+                .orElseThrow(() -> new RuntimeException("Source account not found"));
+            Account toAccount = locked.stream()
+                .filter(a -> a.getId().equals(toAccountId)).findFirst()
+                .orElseThrow(() -> new RuntimeException("Destination account not found"));
+            applyTransfer(fromAccount, toAccount, amount);
+        });
+    }
+
+    private void applyTransfer(Account fromAccount, Account toAccount, BigDecimal amount) {
+        // Check if accounts belong to same user
+        if (!fromAccount.getUser().getId().equals(toAccount.getUser().getId())) {
+            throw new RuntimeException("Can only transfer between accounts of the same user");
+        }
+
+        // Check sufficient balance
+        if (fromAccount.getCurrentBalance().compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance for transfer");
+        }
+
+        fromAccount.setPreviousBalance(fromAccount.getCurrentBalance());
+        fromAccount.setCurrentBalance(fromAccount.getCurrentBalance().subtract(amount));
+
+        toAccount.setPreviousBalance(toAccount.getCurrentBalance());
+        toAccount.setCurrentBalance(toAccount.getCurrentBalance().add(amount));
+
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+
+        // Delivered once this attempt's transaction completes
+        eventPublisher.publishEvent(new AccountsChangedEvent(fromAccount.getUser().getId(), "transfer"));
+    }
+
+    // Exponential backoff with full jitter
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transfer interrupted while retrying");
+        }
+    }
+
+    private boolean isHot(Long accountId) {
+        ConflictWindow window = conflictWindows.getIfPresent(accountId);
+        return window != null && window.conflicts.sum() >= hotConflictThreshold;
+    }
+
+    // Later conflicts count towards the existing window without extending it
+    private void recordConflict(Long accountId) {
+        conflictWindows.get(accountId, id -> new ConflictWindow()).conflicts.increment();
+    }
+
+    // Get throughput and contention figures since the last reset
+    public Map<String, Object> getStatistics() {
+        long completed = completedTransfers.sum();
+        long failed = failedTransfers.sum();
+        double elapsedSeconds = (System.nanoTime() - statisticsStartedAt) / 1_000_000_000.0;
+        long attempted = completed + failed;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("completedTransfers", completed);
+        stats.put("failedTransfers", failed);
+        stats.put("optimisticConflicts", optimisticConflicts.sum());
+        stats.put("pessimisticTransfers", pessimisticTransfers.sum());
+        stats.put("hotAccounts", conflictWindows.asMap().values().stream()
+            .filter(window -> window.conflicts.sum() >= hotConflictThreshold)
+            .count());
+        stats.put("elapsedSeconds", elapsedSeconds);
+        stats.put("transfersPerSecond", elapsedSeconds > 0 ? completed / elapsedSeconds : 0.0);
+        stats.put("averageLatencyMs", attempted > 0 ? totalTransferNanos.sum() / 1_000_000.0 / attempted : 0.0);
+        return stats;
+    }
+
+    // Reset statistics (e.g. before a benchmark run)
+    public void resetStatistics() {
+        completedTransfers.reset();
+        failedTransfers.reset();
+        optimisticConflicts.reset();
+        pessimisticTransfers.reset();
+        totalTransferNanos.reset();
+        statisticsStartedAt = System.nanoTime();
+    }
+
+    private static final class ConflictWindow {
+        private final LongAdder conflicts = new LongAdder();
+    }
+}
@@ -0,0 +1,26 @@
+package com.bdpay.dashboard.service;
+
+import java.util.List;
+
+// One keyset page plus the cursors to its neighbours (null when there is no neighbour)
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+    private final Long totalElements;
+
+    public CursorPage(List<T> content, String nextCursor, String previousCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public String getPreviousCursor() { return previousCursor; }
+    public Long getTotalElements() { return totalElements; }
+
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean hasPrevious() { return previousCursor != null; }
+}
@@ -0,0 +1,304 @@
+package com.bdpay.dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.config.ReadReplicaRouting;
+import com.bdpay.dashboard.config.ReadReplicaRouting.RoutingContext;
+import com.bdpay.dashboard.dto.AccountView;
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.dto.ResponseMapper;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.event.TransactionChangedEvent;
+import com.bdpay.dashboard.event.TransactionRemovedEvent;
+import com.bdpay.dashboard.event.TransactionsImportedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Builds the whole dashboard page in one call. Each section runs on its own virtual thread inside
+// its own read-only transaction, so the page costs as much as its slowest section. Sections are
+// cached independently for a short, configurable time, and dropped as soon as a change to the
+// user's accounts or transactions commits.
+@Service
+public class DashboardService {
+
+    public static final String ACCOUNTS = "accounts";
+    public static final String RECENT = "recent";
+    public static final String CHART = "chart";
+    public static final String STATISTICS = "statistics";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Section threads don't inherit the request's replica routing; it is passed to them
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    // Section cache lifetimes; 0 disables caching for that section
+    @Value("${dashboard.cache.accounts-ttl-ms:0}")
+    private long accountsTtlMs;
+
+    @Value("${dashboard.cache.recent-ttl-ms:0}")
+    private long recentTtlMs;
+
+    @Value("${dashboard.cache.chart-ttl-ms:60000}")
+    private long chartTtlMs;
+
+    @Value("${dashboard.cache.statistics-ttl-ms:30000}")
+    private long statisticsTtlMs;
+
+    @Value("${dashboard.cache.max-users:10000}")
+    private long maxCachedUsers;
+
+    // Per-section time limit; slower sections are reported as timed out instead of holding the page,
+    // and their queries are cancelled once it passes (rounded up to whole seconds)
+    @Value("${dashboard.section-timeout-ms:5000}")
+    private long sectionTimeoutMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private TransactionTemplate readOnlyTransaction;
+    // Null for sections whose TTL is 0
+    private Cache<String, Object> accountsCache;
+    private Cache<String, Object> recentCache;
+    private Cache<String, Object> chartCache;
+    private Cache<String, Object> statisticsCache;
+
+    private final GenerationStamps generations = new GenerationStamps();
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // A timed-out section's loader would otherwise keep its query, and its connection, going
+        readOnlyTransaction.setTimeout((int) Math.max(1, (sectionTimeoutMs + 999) / 1000));
+
+        accountsCache = buildCache(accountsTtlMs);
+        recentCache = buildCache(recentTtlMs);
+        chartCache = buildCache(chartTtlMs);
+        statisticsCache = buildCache(statisticsTtlMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Load every dashboard section in parallel; refresh bypasses the section caches
+    public Map<String, Object> getDashboard(Long userId, int year, boolean refresh) {
+        long started = System.nanoTime();
+        RoutingContext routing = readReplicaRouting.currentContext();
+
+        CompletableFuture<SectionResult> accounts = submit(ACCOUNTS, accountsCache, userId,
+            String.valueOf(userId), refresh, routing, () -> loadAccounts(userId));
+        CompletableFuture<SectionResult> recent = submit(RECENT, recentCache, userId,
+            String.valueOf(userId), refresh, routing, () -> loadRecent(userId));
+        CompletableFuture<SectionResult> chart = submit(CHART, chartCache, userId,
+            userId + ":" + year, refresh, routing, () -> loadChart(userId, year));
+        CompletableFuture<SectionResult> statistics = submit(STATISTICS, statisticsCache, userId,
+            String.valueOf(userId), refresh, routing, () -> loadStatistics(userId));
+
+        Map<String, Object> sections = new LinkedHashMap<>();
+        Map<String, Object> timings = new LinkedHashMap<>();
+        Map<String, Object> errors = new LinkedHashMap<>();
+
+        for (CompletableFuture<SectionResult> future : List.of(accounts, recent, chart, statistics)) {
+            SectionResult result = future.join();
+            timings.put(result.getName(), Map.of(
+                "durationMs", result.getDurationMs(),
+                "cached", result.isCached()
+            ));
+            if (result.getError() != null) {
+                errors.put(result.getName(), result.getError());
+            } else {
+                sections.put(result.getName(), result.getData());
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>(sections);
+        response.put("timings", timings);
+        response.put("totalDurationMs", elapsedMillis(started));
+        if (!errors.isEmpty()) {
+            response.put("errors", errors);
+        }
+        return response;
+    }
+
+    // Drop every cached section for a user
+    public void evictUser(Long userId) {
+        // Sections still loading from before this change must not be cached
+        generations.advance(userId);
+        String key = String.valueOf(userId);
+        invalidate(accountsCache, key);
+        invalidate(recentCache, key);
+        invalidate(statisticsCache, key);
+        if (chartCache != null) {
+            chartCache.asMap().keySet().removeIf(k -> k.startsWith(key + ":"));
+        }
+    }
+
+    // Balances, settlements and account edits; rollbacks evict too, like AccountQueryCache
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    // New and processed transactions (recent list, chart and statistics)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    // One eviction per imported chunk
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        evictUser(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onTransactionRemoved(TransactionRemovedEvent event) {
+        evictUser(event.userId());
+    }
+
+    // Run one section on a virtual thread, serving it from cache when possible. Failures and
+    // timeouts are captured per section so one slow or broken section doesn't fail the page.
+    private CompletableFuture<SectionResult> submit(String name, Cache<String, Object> cache, Long userId,
+                                                    String key, boolean refresh, RoutingContext routing,
+                                                    Supplier<Object> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            if (!refresh && cache != null) {
+                Object cached = cache.getIfPresent(key);
+                if (cached != null) {
+                    return new SectionResult(name, cached, true, elapsedMillis(started), null);
+                }
+            }
+            long generation = generations.current(userId);
+            Object data = readReplicaRouting.withContext(routing,
+                () -> readOnlyTransaction.execute(status -> loader.get()));
+            if (cache != null) {
+                cache.put(key, data);
+                // A change for this user completed while we were loading: what we read may predate it
+                if (!generations.isCurrent(userId, generation)) {
+                    cache.asMap().remove(key, data);
+                }
+            }
+            return new SectionResult(name, data, false, elapsedMillis(started), null);
+        }, executor)
+            .completeOnTimeout(new SectionResult(name, null, false, sectionTimeoutMs, "Timed out"),
+                sectionTimeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return new SectionResult(name, null, false, 0, cause.getMessage());
+            });
+    }
+
+    // Accounts with the total balance summed from the same rows (one query instead of two)
+    private Object loadAccounts(Long userId) {
+        List<AccountView> accounts = accountService.getUserAccountViews(userId);
+        BigDecimal totalBalance = accounts.stream()
+            .map(AccountView::currentBalance)
+            .filter(balance -> balance != null)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return Map.of(
+            "accounts", accounts,
+            "totalBalance", totalBalance
+        );
+    }
+
+    private Object loadRecent(Long userId) {
+        return transactionService.getRecentTransactions(userId);
+    }
+
+    private Object loadChart(Long userId, int year) {
+        return ResponseMapper.processMonthlyDataForChart(
+            transactionService.getMonthlyTransactionData(userId, year));
+    }
+
+    // Current month spending, matching /transactions/statistics with period=current
+    private Object loadStatistics(Long userId) {
+        LocalDateTime endDate = LocalDateTime.now();
+        LocalDateTime startDate = endDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+
+        List<CategorySpending> statisticsData = ResponseMapper.mapSpendingToStatistics(
+            transactionService.getSpendingByCategory(userId, startDate, endDate));
+
+        return Map.of(
+            "categories", statisticsData,
+            "total", ResponseMapper.sumStatistics(statisticsData),
+            "period", "current",
+            "startDate", startDate,
+            "endDate", endDate
+        );
+    }
+
+    private Cache<String, Object> buildCache(long ttlMs) {
+        if (ttlMs <= 0) {
+            return null;
+        }
+        return Caffeine.newBuilder()
+            .maximumSize(maxCachedUsers)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    private static void invalidate(Cache<String, Object> cache, String key) {
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    // Outcome of loading one dashboard section
+    private static class SectionResult {
+        private final String name;
+        private final Object data;
+        private final boolean cached;
+        private final long durationMs;
+        private final String error;
+
+        SectionResult(String name, Object data, boolean cached, long durationMs, String error) {
+            this.name = name;
+            this.data = data;
+            this.cached = cached;
+            this.durationMs = durationMs;
+            this.error = error;
+        }
+
+        public String getName() { return name; }
+        public Object getData() { return data; }
+        public boolean isCached() { return cached; }
+        public long getDurationMs() { return durationMs; }
+        public String getError() { return error; }
+    }
+}
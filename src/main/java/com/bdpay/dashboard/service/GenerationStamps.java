@@ -0,0 +1,30 @@
+package com.bdpay.dashboard.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-user generation counters for caches that are filled outside the transaction that
+// invalidates them. A load reads the user's generation before querying and installs its result
+// only if the generation is unchanged afterwards; every invalidation advances it. Users share
+// stripes, so a collision costs at most an extra reload.
+final class GenerationStamps {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    long current(Long userId) {
+        return generations.get(stripe(userId));
+    }
+
+    void advance(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+    }
+
+    boolean isCurrent(Long userId, long generation) {
+        return current(userId) == generation;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,334 @@
+package com.bdpay.dashboard.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bdpay.dashboard.dto.AccountView;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.event.TransactionChangedEvent;
+import com.bdpay.dashboard.event.TransactionRemovedEvent;
+import com.bdpay.dashboard.event.TransactionsImportedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Server-Sent Event streams of a user's balance changes and transaction updates, fed by the
+// after-commit AccountsChangedEvent, TransactionChangedEvent and TransactionRemovedEvent; an
+// imported chunk (TransactionsImportedEvent) sends one "resync" instead of its rows. Streams are
+// async servlet requests, so an idle one holds no thread; each has a bounded queue drained by a
+// virtual thread.
+// A client too slow to keep up has its queue replaced by a single "resync" event, telling it to
+// refetch over REST, so a stalled socket never holds more than buffer-size events.
+@Component
+public class LiveUpdateHub {
+
+    private static final LiveEvent HEARTBEAT = new LiveEvent(null, null);
+    private static final LiveEvent RESYNC = new LiveEvent("resync", "{}");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${live-updates.max-connections:20000}")
+    private int maxConnections;
+
+    @Value("${live-updates.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${live-updates.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${live-updates.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${live-updates.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    // Fresh virtual threads that don't inherit the publishing request's thread locals
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("live-update-", 0).inheritInheritableThreadLocals(false).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("live-update-heartbeat").daemon().factory());
+
+    private Counter eventsSent;
+    private Counter eventsDropped;
+    private Counter connectionsRejected;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("live.connections", connectionCount, AtomicInteger::get)
+            .description("Open live update streams")
+            .register(meterRegistry);
+        eventsSent = Counter.builder("live.events.sent")
+            .description("Events written to live update streams")
+            .register(meterRegistry);
+        eventsDropped = Counter.builder("live.events.dropped")
+            .description("Queued events discarded for a client that fell behind (replaced by a resync)")
+            .register(meterRegistry);
+        connectionsRejected = Counter.builder("live.connections.rejected")
+            .description("Stream requests refused at the connection limits")
+            .register(meterRegistry);
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        channels.values().forEach(channel -> channel.connections.forEach(connection -> connection.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    // Open a stream for a user. The first event is an "accounts" snapshot; after that come
+    // "balances" (changed accounts with the change since the last event), "transaction" and
+    // "transaction-removed" events.
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            connectionsRejected.increment();
+            throw new TooManyConnectionsException("Live update connection limit reached");
+        }
+
+        Connection connection = new Connection(userId, newEmitter());
+        UserChannel channel = channels.compute(userId, (id, existing) -> {
+            UserChannel current = existing != null ? existing : new UserChannel();
+            if (current.connections.size() < maxConnectionsPerUser) {
+                current.connections.add(connection);
+            }
+            return current;
+        });
+        if (!channel.connections.contains(connection)) {
+            connectionCount.decrementAndGet();
+            connectionsRejected.increment();
+            throw new TooManyConnectionsException("Too many live update streams for this user");
+        }
+
+        connection.emitter.onCompletion(connection::close);
+        connection.emitter.onTimeout(connection::close);
+        connection.emitter.onError(error -> connection.close());
+
+        senders.execute(() -> sendSnapshot(userId, channel, connection));
+        return connection.emitter;
+    }
+
+    // Balances changed and committed: one refresh per user at a time, later changes fold into it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null && channel.refreshQueued.compareAndSet(false, true)) {
+            senders.execute(() -> refreshBalances(event.userId(), channel));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null) {
+            LiveEvent update = new LiveEvent("transaction", event.transaction());
+            channel.connections.forEach(connection -> connection.offer(update));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionRemoved(TransactionRemovedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null) {
+            LiveEvent update = new LiveEvent("transaction-removed", Map.of("id", event.transactionId()));
+            channel.connections.forEach(connection -> connection.offer(update));
+        }
+    }
+
+    // A committed import chunk: clients refetch over REST rather than receive every row
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel != null) {
+            channel.connections.forEach(connection -> connection.offer(RESYNC));
+        }
+    }
+
+    private void sendSnapshot(Long userId, UserChannel channel, Connection connection) {
+        try {
+            channel.lock.lock();
+            try {
+                List<AccountView> accounts = accountService.getCurrentAccountViews(userId);
+                broadcastChanges(channel, accounts, connection);
+                connection.offer(new LiveEvent("accounts", accounts));
+            } finally {
+                channel.lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Live update snapshot failed for user " + userId + ": " + e.getMessage());
+            connection.fail(e);
+        }
+    }
+
+    private void refreshBalances(Long userId, UserChannel channel) {
+        // Cleared before the read, so a change committed during it queues another refresh
+        channel.refreshQueued.set(false);
+        try {
+            channel.lock.lock();
+            try {
+                broadcastChanges(channel, accountService.getCurrentAccountViews(userId), null);
+            } finally {
+                channel.lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Live update balance refresh failed for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    // Send the accounts whose balance differs from the last one sent to every stream except
+    // the newcomer, which gets the full snapshot instead
+    private void broadcastChanges(UserChannel channel, List<AccountView> accounts, Connection newcomer) {
+        List<BalanceChange> changes = new ArrayList<>();
+        for (AccountView account : accounts) {
+            BigDecimal last = channel.lastBalances.put(account.id(), account.currentBalance());
+            if (last != null && last.compareTo(account.currentBalance()) != 0) {
+                changes.add(new BalanceChange(account.id(), account.currentBalance(),
+                    account.currentBalance().subtract(last)));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        LiveEvent update = new LiveEvent("balances", changes);
+        for (Connection connection : channel.connections) {
+            if (connection != newcomer) {
+                connection.offer(update);
+            }
+        }
+    }
+
+    // Overridden by LiveUpdateHubTests to capture what each stream is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void sendHeartbeats() {
+        channels.values().forEach(channel -> channel.connections.forEach(connection -> {
+            // A stream with events queued doesn't need one; a dead socket fails the write and is dropped
+            if (connection.queue.isEmpty()) {
+                connection.offer(HEARTBEAT);
+            }
+        }));
+    }
+
+    // Event name and payload; a null name is a heartbeat comment
+    private record LiveEvent(String name, Object data) {}
+
+    // Account balance after a change and the amount it moved by since the previous event
+    public record BalanceChange(Long accountId, BigDecimal currentBalance, BigDecimal change) {}
+
+    public static class TooManyConnectionsException extends RuntimeException {
+        public TooManyConnectionsException(String message) {
+            super(message);
+        }
+    }
+
+    // A user's open streams and the balances they were last sent. A lock rather than synchronized:
+    // it is held across a query, which would pin the virtual thread to its carrier.
+    private static class UserChannel {
+        private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, BigDecimal> lastBalances = new HashMap<>();
+        private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    }
+
+    private class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<LiveEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(LiveEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Fell behind: what is queued is stale anyway, so swap it for one resync
+                int dropped = queue.size();
+                queue.clear();
+                queue.offer(RESYNC);
+                eventsDropped.increment(dropped + 1);
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // One drainer per stream; a slow socket blocks only this virtual thread
+        private void drain() {
+            do {
+                LiveEvent event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event.name() == null
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                        eventsSent.increment();
+                    } catch (IOException | IllegalStateException e) {
+                        draining.set(false);
+                        fail(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void fail(Exception e) {
+            close();
+            emitter.completeWithError(e);
+        }
+
+        // Runs once, whichever of failure, completion, timeout or error gets here first
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            connectionCount.decrementAndGet();
+            channels.computeIfPresent(userId, (id, channel) -> {
+                channel.connections.remove(this);
+                return channel.connections.isEmpty() ? null : channel;
+            });
+        }
+    }
+}
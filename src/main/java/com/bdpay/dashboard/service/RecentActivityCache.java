@@ -0,0 +1,173 @@
+package com.bdpay.dashboard.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bdpay.dashboard.config.ReadReplicaRouting;
+import com.bdpay.dashboard.dto.TransactionView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Per-user window of the newest transactions, kept in memory so the dashboard table needs no
+// database round trip in steady state. Mutations are applied only once their transaction
+// commits; a per-user generation stamp stops a concurrent reload from installing stale rows.
+@Component
+public class RecentActivityCache {
+
+    private static final Comparator<TransactionView> NEWEST_FIRST = Comparator
+        .comparing(TransactionView::transactionDate, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(TransactionView::id, Comparator.reverseOrder());
+
+    // Windows are patched in place after commit, so they must be loaded from the primary
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    // Transactions served per user
+    @Value("${recent-activity.size:10}")
+    private int size;
+
+    // Extra rows held so a few deletions don't force a reload
+    @Value("${recent-activity.slack:10}")
+    private int slack;
+
+    @Value("${recent-activity.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${recent-activity.expire-after-access-ms:600000}")
+    private long expireAfterAccessMs;
+
+    private Cache<Long, UserWindow> windows;
+
+    private final GenerationStamps generations = new GenerationStamps();
+
+    @PostConstruct
+    void init() {
+        windows = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+            .build();
+    }
+
+    // Rows to load on a miss
+    public int capacity() {
+        return size + slack;
+    }
+
+    // Newest transactions for a user; the loader must return up to capacity() rows, newest first
+    public List<TransactionView> getRecent(Long userId, Supplier<List<TransactionView>> loader) {
+        UserWindow window = windows.getIfPresent(userId);
+        if (window != null) {
+            return window.snapshot(size);
+        }
+
+        long generation = generations.current(userId);
+        List<TransactionView> loaded = readReplicaRouting.onPrimary(loader);
+        UserWindow loadedWindow = new UserWindow(loaded, loaded.size() < capacity());
+        windows.put(userId, loadedWindow);
+
+        // A mutation committed while we were loading: our rows may predate it
+        if (!generations.isCurrent(userId, generation)) {
+            windows.asMap().remove(userId, loadedWindow);
+        }
+        return loadedWindow.snapshot(size);
+    }
+
+    // A transaction was created or changed status
+    public void transactionSaved(Long userId, TransactionView transaction) {
+        afterCompletion(userId, () -> {
+            UserWindow window = windows.getIfPresent(userId);
+            if (window != null && !window.upsert(transaction, capacity(), size)) {
+                windows.invalidate(userId);
+            }
+        });
+    }
+
+    // A transaction was deleted
+    public void transactionRemoved(Long userId, Long transactionId) {
+        afterCompletion(userId, () -> {
+            UserWindow window = windows.getIfPresent(userId);
+            if (window != null && !window.remove(transactionId, size)) {
+                windows.invalidate(userId);
+            }
+        });
+    }
+
+    // Drop a user's window (bulk changes); it is reloaded on the next read
+    public void invalidate(Long userId) {
+        afterCompletion(userId, () -> windows.invalidate(userId));
+    }
+
+    // Apply the change once the surrounding transaction commits, or drop the window if it rolls back
+    private void afterCompletion(Long userId, Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generations.advance(userId);
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                generations.advance(userId);
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    windows.invalidate(userId);
+                }
+            }
+        });
+    }
+
+    // Bounded list of a user's newest transactions, newest first
+    private static final class UserWindow {
+        private final List<TransactionView> transactions;
+        // True when the window holds every transaction the user has
+        private boolean complete;
+
+        private UserWindow(List<TransactionView> transactions, boolean complete) {
+            this.transactions = new ArrayList<>(transactions);
+            this.complete = complete;
+        }
+
+        synchronized List<TransactionView> snapshot(int limit) {
+            return List.copyOf(transactions.subList(0, Math.min(limit, transactions.size())));
+        }
+
+        // Returns false when the window can no longer tell what the newest rows are
+        synchronized boolean upsert(TransactionView transaction, int capacity, int size) {
+            transactions.removeIf(t -> t.id().equals(transaction.id()));
+
+            int position = Collections.binarySearch(transactions, transaction, NEWEST_FIRST);
+            int insertAt = position >= 0 ? position : -position - 1;
+            if (insertAt >= transactions.size() && !complete && transactions.size() >= size) {
+                // Older than everything we hold and we don't hold everything: not part of the window
+                return true;
+            }
+            if (insertAt >= transactions.size() && !complete) {
+                return false;
+            }
+            transactions.add(insertAt, transaction);
+            if (transactions.size() > capacity) {
+                transactions.remove(transactions.size() - 1);
+                complete = false;
+            }
+            return true;
+        }
+
+        synchronized boolean remove(Long transactionId, int size) {
+            transactions.removeIf(t -> t.id().equals(transactionId));
+            return complete || transactions.size() >= size;
+        }
+    }
+}
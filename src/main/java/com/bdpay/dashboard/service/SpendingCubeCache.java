@@ -0,0 +1,165 @@
+package com.bdpay.dashboard.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bdpay.dashboard.config.ReadReplicaRouting;
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.entity.DailyCategorySpending;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Per-user cumulative spending cube built from the daily category rollup. Row i holds, for every
+// category, the total spent on all days up to and including days[i], so the spending in any
+// date range is one subtraction per category after two binary searches. A cube is dropped when
+// one of the user's expenses settles (after commit) and rebuilt on the next read.
+@Component
+public class SpendingCubeCache {
+
+    // Cubes are rebuilt from the primary so a lagging replica can't undo an invalidation
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    @Value("${spending-cube.max-users:10000}")
+    private long maxUsers;
+
+    @Value("${spending-cube.expire-after-access-ms:600000}")
+    private long expireAfterAccessMs;
+
+    private Cache<Long, SpendingCube> cubes;
+
+    private final GenerationStamps generations = new GenerationStamps();
+
+    @PostConstruct
+    void init() {
+        cubes = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+            .build();
+    }
+
+    // Cube for a user; the loader returns the user's daily buckets in date order
+    public SpendingCube get(Long userId, Supplier<List<DailyCategorySpending>> loader) {
+        SpendingCube cube = cubes.getIfPresent(userId);
+        if (cube != null) {
+            return cube;
+        }
+
+        long generation = generations.current(userId);
+        SpendingCube built = SpendingCube.build(readReplicaRouting.onPrimary(loader));
+        // Only install if no settlement committed while we were reading
+        if (generations.isCurrent(userId, generation)) {
+            cubes.put(userId, built);
+        }
+        return built;
+    }
+
+    // Drop a user's cube once the surrounding transaction completes
+    public void invalidate(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generations.advance(userId);
+            cubes.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                generations.advance(userId);
+                cubes.invalidate(userId);
+            }
+        });
+    }
+
+    // Immutable prefix-sum table: days ascending, amounts in cents
+    public static final class SpendingCube {
+        private final long[] days;
+        private final String[] categories;
+        private final long[][] cumulativeCents;
+
+        private SpendingCube(long[] days, String[] categories, long[][] cumulativeCents) {
+            this.days = days;
+            this.categories = categories;
+            this.cumulativeCents = cumulativeCents;
+        }
+
+        static SpendingCube build(List<DailyCategorySpending> buckets) {
+            Map<String, Integer> categoryIndex = new LinkedHashMap<>();
+            List<Long> dayList = new ArrayList<>();
+            for (DailyCategorySpending bucket : buckets) {
+                categoryIndex.putIfAbsent(bucket.getCategory(), categoryIndex.size());
+                long day = bucket.getSpendingDate().toEpochDay();
+                if (dayList.isEmpty() || dayList.get(dayList.size() - 1) != day) {
+                    dayList.add(day);
+                }
+            }
+
+            long[] days = dayList.stream().mapToLong(Long::longValue).toArray();
+            long[][] cumulative = new long[days.length][categoryIndex.size()];
+            int row = -1;
+            long currentDay = Long.MIN_VALUE;
+            for (DailyCategorySpending bucket : buckets) {
+                long day = bucket.getSpendingDate().toEpochDay();
+                if (day != currentDay) {
+                    row++;
+                    currentDay = day;
+                    if (row > 0) {
+                        System.arraycopy(cumulative[row - 1], 0, cumulative[row], 0, categoryIndex.size());
+                    }
+                }
+                cumulative[row][categoryIndex.get(bucket.getCategory())] +=
+                    bucket.getTotalAmount().movePointRight(2).longValueExact();
+            }
+
+            return new SpendingCube(days, categoryIndex.keySet().toArray(new String[0]), cumulative);
+        }
+
+        // Spending per category over [from, to] (inclusive days), largest first, zeros omitted
+        public List<CategorySpending> spendingByCategory(LocalDate from, LocalDate to) {
+            long[] totals = totals(from, to);
+            List<CategorySpending> result = new ArrayList<>();
+            for (int c = 0; c < categories.length; c++) {
+                if (totals[c] != 0) {
+                    result.add(new CategorySpending(
+                        categories[c].isEmpty() ? null : categories[c],
+                        BigDecimal.valueOf(totals[c], 2)
+                    ));
+                }
+            }
+            result.sort((a, b) -> b.amount().compareTo(a.amount()));
+            return result;
+        }
+
+        private long[] totals(LocalDate from, LocalDate to) {
+            long[] totals = new long[categories.length];
+            int last = lastIndexAtOrBefore(to.toEpochDay());
+            if (last < 0 || from.isAfter(to)) {
+                return totals;
+            }
+            int beforeFirst = lastIndexAtOrBefore(from.toEpochDay() - 1);
+            for (int c = 0; c < categories.length; c++) {
+                totals[c] = cumulativeCents[last][c] - (beforeFirst >= 0 ? cumulativeCents[beforeFirst][c] : 0);
+            }
+            return totals;
+        }
+
+        private int lastIndexAtOrBefore(long day) {
+            int position = Arrays.binarySearch(days, day);
+            return position >= 0 ? position : -position - 2;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bdpay.dashboard.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.bdpay.dashboard.dto.TransactionView;
+
+// Opaque keyset position in a (transactionDate DESC, id DESC) listing. NEXT cursors page
+// towards older transactions, PREVIOUS cursors towards newer ones.
+public final class TransactionCursor {
+
+    public enum Direction { NEXT, PREVIOUS }
+
+    private final Direction direction;
+    private final LocalDateTime transactionDate;
+    private final Long id;
+
+    private TransactionCursor(Direction direction, LocalDateTime transactionDate, Long id) {
+        this.direction = direction;
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    public static TransactionCursor after(TransactionView transaction) {
+        return new TransactionCursor(Direction.NEXT, transaction.transactionDate(), transaction.id());
+    }
+
+    public static TransactionCursor before(TransactionView transaction) {
+        return new TransactionCursor(Direction.PREVIOUS, transaction.transactionDate(), transaction.id());
+    }
+
+    // Encode as an opaque, URL-safe token
+    public String encode() {
+        String raw = (direction == Direction.NEXT ? "n" : "p") + "|" + transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a token produced by encode()
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !(parts[0].equals("n") || parts[0].equals("p"))) {
+                throw new IllegalArgumentException();
+            }
+            return new TransactionCursor(
+                parts[0].equals("n") ? Direction.NEXT : Direction.PREVIOUS,
+                LocalDateTime.parse(parts[1]),
+                Long.valueOf(parts[2])
+            );
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public Direction getDirection() { return direction; }
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public Long getId() { return id; }
+}
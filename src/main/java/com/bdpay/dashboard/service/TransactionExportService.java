@@ -0,0 +1,127 @@
+package com.bdpay.dashboard.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.dto.TransactionView;
+import com.bdpay.dashboard.repository.TransactionRepository;
+import com.bdpay.dashboard.service.TransactionIngestionService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.annotation.PostConstruct;
+
+// Writes a user's full transaction history as CSV or NDJSON straight to an output stream. Rows
+// come from a server-side cursor as TransactionView projections, so nothing accumulates in the
+// persistence context and memory use does not depend on how many transactions the user has.
+// The CSV columns share the importer's names, but an export is not a backup: the importer ignores
+// id, status and createdAt, so feeding one back into /transactions/import adds pending copies.
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER =
+        "id,accountId,businessName,category,amount,transactionType,status,description,transactionDate,createdAt";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectWriter viewWriter;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        viewWriter = objectMapper.writerFor(TransactionView.class);
+    }
+
+    // Stream every transaction of a user to the output, returning the number of rows written
+    public long export(Long userId, Format format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+
+        Long written = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Stream<TransactionView> transactions = transactionRepository.streamByUserId(userId)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                Iterator<TransactionView> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    TransactionView view = iterator.next();
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, view);
+                    } else {
+                        writer.write(viewWriter.writeValueAsString(view));
+                        writer.write('\n');
+                    }
+                    rows++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Usually the client went away; closing the stream releases the cursor
+                throw new UncheckedIOException("Export aborted: " + e.getMessage(), e);
+            }
+            return rows;
+        });
+
+        return written != null ? written : 0;
+    }
+
+    private void writeCsvRow(Writer writer, TransactionView view) throws IOException {
+        writer.write(String.valueOf(view.id()));
+        writer.write(',');
+        writer.write(String.valueOf(view.accountId()));
+        writer.write(',');
+        writeCsvValue(writer, view.businessName());
+        writer.write(',');
+        writeCsvValue(writer, view.category());
+        writer.write(',');
+        writer.write(view.amount().toPlainString());
+        writer.write(',');
+        writer.write(view.transactionType().name());
+        writer.write(',');
+        writer.write(view.status().name());
+        writer.write(',');
+        writeCsvValue(writer, view.description());
+        writer.write(',');
+        writeCsvValue(writer, view.transactionDate() != null ? view.transactionDate().toString() : null);
+        writer.write(',');
+        writeCsvValue(writer, view.createdAt() != null ? view.createdAt().toString() : null);
+        writer.write('\n');
+    }
+
+    // Quote a field when it contains a separator, quote or line break; "" escapes a quote
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
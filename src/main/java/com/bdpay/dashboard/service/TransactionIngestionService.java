@@ -0,0 +1,437 @@
+package com.bdpay.dashboard.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.event.TransactionsImportedEvent;
+import com.bdpay.dashboard.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Streams NDJSON/CSV transaction feeds into the database in chunks. Parsing of the next chunk
+// overlaps with the write of the previous one; each chunk resolves its accounts with a single
+// query and is committed in its own transaction so a bad row or chunk never aborts the stream.
+// Rows may only target accounts owned by the importing user.
+@Service
+public class TransactionIngestionService {
+
+    public enum Format { NDJSON, CSV }
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecentActivityCache recentActivityCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ingestion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${ingestion.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Chunk writes for every import; each import keeps at most one chunk in flight, and the
+    // DataSource concurrency limit bounds how many hold a connection at once
+    private final ExecutorService writer = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("ingestion-", 0).factory());
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdownNow();
+    }
+
+    // Import every row from the input into the user's accounts, returning per-row errors in the report
+    public IngestionReport ingest(InputStream input, Format format, Long userId) throws IOException {
+        IngestionReport report = new IngestionReport(maxReportedErrors);
+        Future<?> chunkInFlight = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<IngestionRow> chunk = new ArrayList<>(chunkSize);
+            List<String> csvHeader = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvHeader == null) {
+                    csvHeader = parseCsvLine(line).stream()
+                        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                        .toList();
+                    continue;
+                }
+
+                report.rowRead();
+                try {
+                    chunk.add(format == Format.CSV
+                        ? parseCsvRow(csvHeader, line, lineNumber)
+                        : parseJsonRow(line, lineNumber));
+                } catch (Exception e) {
+                    report.rowFailed(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    chunkInFlight = submitChunk(chunkInFlight, chunk, userId, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                chunkInFlight = submitChunk(chunkInFlight, chunk, userId, report);
+            }
+            awaitChunk(chunkInFlight);
+        } finally {
+            // Reading failed: don't leave the last chunk writing for an import that is over
+            if (chunkInFlight != null) {
+                chunkInFlight.cancel(true);
+            }
+        }
+
+        report.finish();
+        return report;
+    }
+
+    // Keep at most one chunk in flight so memory stays bounded by two chunks
+    private Future<?> submitChunk(Future<?> previous, List<IngestionRow> chunk, Long userId,
+                                  IngestionReport report) {
+        awaitChunk(previous);
+        return writer.submit(() -> writeChunk(chunk, userId, report));
+    }
+
+    private void awaitChunk(Future<?> chunk) {
+        if (chunk == null) {
+            return;
+        }
+        try {
+            chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Persist one chunk in a single transaction; IDs come from the pooled sequence so the
+    // inserts go out as JDBC batches
+    private void writeChunk(List<IngestionRow> rows, Long userId, IngestionReport report) {
+        List<IngestionRow> written = new ArrayList<>(rows.size());
+        Map<Long, String> rejected = new HashMap<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> accountIds = new HashSet<>();
+                for (IngestionRow row : rows) {
+                    accountIds.add(row.accountId);
+                }
+                Map<Long, Account> accounts = new HashMap<>();
+                for (Account account : accountRepository.findAllById(accountIds)) {
+                    // Another user's account is reported exactly like a missing one
+                    if (userId.equals(account.getUser().getId())) {
+                        accounts.put(account.getId(), account);
+                    }
+                }
+
+                for (IngestionRow row : rows) {
+                    Account account = accounts.get(row.accountId);
+                    if (account == null) {
+                        rejected.put(row.lineNumber, "Account not found with id: " + row.accountId);
+                        continue;
+                    }
+                    entityManager.persist(row.toTransaction(account));
+                    written.add(row);
+                }
+
+                // Imported rows may land anywhere in the user's history: reload their recent window,
+                // and tell listeners once per chunk (delivered when it commits) rather than per row
+                if (!written.isEmpty()) {
+                    recentActivityCache.invalidate(userId);
+                    eventPublisher.publishEvent(new TransactionsImportedEvent(userId, written.size()));
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            rejected.forEach(report::rowFailed);
+            report.chunkCommitted(written.size());
+        } catch (RuntimeException e) {
+            // The whole chunk rolled back: every row in it is reported as failed
+            String message = "Chunk rolled back: " + e.getMessage();
+            for (IngestionRow row : rows) {
+                report.rowFailed(row.lineNumber, rejected.getOrDefault(row.lineNumber, message));
+            }
+        }
+    }
+
+    private IngestionRow parseJsonRow(String line, long lineNumber) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        return IngestionRow.of(
+            lineNumber,
+            textValue(node, "accountId"),
+            textValue(node, "businessName"),
+            textValue(node, "category"),
+            textValue(node, "amount"),
+            textValue(node, "transactionType"),
+            textValue(node, "description"),
+            textValue(node, "transactionDate")
+        );
+    }
+
+    private IngestionRow parseCsvRow(List<String> header, String line, long lineNumber) {
+        List<String> values = parseCsvLine(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return IngestionRow.of(
+            lineNumber,
+            row.get("accountid"),
+            row.get("businessname"),
+            row.get("category"),
+            row.get("amount"),
+            row.get("transactiontype"),
+            row.get("description"),
+            row.get("transactiondate")
+        );
+    }
+
+    private String textValue(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // Split a CSV line, honouring double-quoted fields and "" escapes
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // A validated input row, ready to become a PENDING transaction
+    static class IngestionRow {
+        private final long lineNumber;
+        private final Long accountId;
+        private final String businessName;
+        private final String category;
+        private final BigDecimal amount;
+        private final TransactionType transactionType;
+        private final String description;
+        private final LocalDateTime transactionDate;
+
+        private IngestionRow(long lineNumber, Long accountId, String businessName, String category,
+                             BigDecimal amount, TransactionType transactionType, String description,
+                             LocalDateTime transactionDate) {
+            this.lineNumber = lineNumber;
+            this.accountId = accountId;
+            this.businessName = businessName;
+            this.category = category;
+            this.amount = amount;
+            this.transactionType = transactionType;
+            this.description = description;
+            this.transactionDate = transactionDate;
+        }
+
+        static IngestionRow of(long lineNumber, String accountId, String businessName, String category,
+                               String amount, String transactionType, String description, String transactionDate) {
+            if (isBlank(accountId)) {
+                throw new IllegalArgumentException("accountId is required");
+            }
+            if (isBlank(businessName)) {
+                throw new IllegalArgumentException("businessName is required");
+            }
+            if (isBlank(amount)) {
+                throw new IllegalArgumentException("amount is required");
+            }
+            if (isBlank(transactionType)) {
+                throw new IllegalArgumentException("transactionType is required");
+            }
+
+            BigDecimal parsedAmount;
+            try {
+                parsedAmount = new BigDecimal(amount.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + amount);
+            }
+            if (parsedAmount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("amount must be positive");
+            }
+
+            Long parsedAccountId;
+            try {
+                parsedAccountId = Long.valueOf(accountId.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid accountId: " + accountId);
+            }
+
+            TransactionType parsedType;
+            try {
+                parsedType = TransactionType.valueOf(transactionType.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid transactionType: " + transactionType);
+            }
+
+            return new IngestionRow(lineNumber, parsedAccountId, businessName.trim(),
+                isBlank(category) ? null : category.trim(), parsedAmount, parsedType,
+                isBlank(description) ? null : description, parseDate(transactionDate));
+        }
+
+        private static LocalDateTime parseDate(String value) {
+            if (isBlank(value)) {
+                return null;
+            }
+            try {
+                return value.length() <= 10
+                    ? LocalDate.parse(value.trim()).atStartOfDay()
+                    : LocalDateTime.parse(value.trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid transactionDate: " + value);
+            }
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+
+        private Transaction toTransaction(Account account) {
+            Transaction transaction = new Transaction();
+            transaction.setBusinessName(businessName);
+            transaction.setCategory(category);
+            transaction.setAmount(amount);
+            transaction.setTransactionType(transactionType);
+            transaction.setStatus(TransactionStatus.PENDING);
+            transaction.setDescription(description);
+            transaction.setAccount(account);
+            transaction.setTransactionDate(transactionDate != null ? transactionDate : LocalDateTime.now());
+            return transaction;
+        }
+    }
+
+    // Import outcome; updated from both the parsing and the writing thread
+    public static class IngestionReport {
+        private final int maxReportedErrors;
+        private final long startedAt = System.nanoTime();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private int chunksCommitted;
+        private long elapsedMs;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        IngestionReport(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        synchronized void rowRead() {
+            rowsRead++;
+        }
+
+        synchronized void rowFailed(long lineNumber, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(Map.of("line", lineNumber, "error", error != null ? error : "Invalid row"));
+            }
+        }
+
+        synchronized void chunkCommitted(int rows) {
+            imported += rows;
+            chunksCommitted++;
+        }
+
+        synchronized void finish() {
+            elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        }
+
+        public synchronized Map<String, Object> toResponse() {
+            Map<String, Object> response = new HashMap<>();
+            response.put("rowsRead", rowsRead);
+            response.put("imported", imported);
+            response.put("failed", failed);
+            response.put("chunksCommitted", chunksCommitted);
+            response.put("elapsedMs", elapsedMs);
+            response.put("rowsPerSecond", elapsedMs > 0 ? imported * 1000 / elapsedMs : imported);
+            response.put("errors", new ArrayList<>(errors));
+            response.put("errorsTruncated", failed > errors.size());
+            return response;
+        }
+
+        public synchronized long getImported() { return imported; }
+        public synchronized long getFailed() { return failed; }
+    }
+}
@@ -0,0 +1,252 @@
+package com.bdpay.dashboard.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bdpay.dashboard.config.TransactionPartitionManager;
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.dto.MonthlyTotal;
+import com.bdpay.dashboard.entity.DailyCategorySpending;
+import com.bdpay.dashboard.entity.MonthlyTransactionRollup;
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.repository.DailyCategorySpendingRepository;
+import com.bdpay.dashboard.repository.MonthlyTransactionRollupRepository;
+import com.bdpay.dashboard.repository.TransactionRepository;
+import com.bdpay.dashboard.repository.UserRepository;
+
+@Service
+@Transactional
+public class TransactionRollupService {
+
+    // Advisory lock namespace guarding a user's rollup rows
+    private static final int ROLLUP_LOCK_NAMESPACE = 1001;
+
+    @Autowired
+    private MonthlyTransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private DailyCategorySpendingRepository dailySpendingRepository;
+
+    @Autowired
+    private SpendingCubeCache spendingCubeCache;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Absent when partition maintenance is disabled; then nothing is ever archived
+    @Autowired(required = false)
+    private TransactionPartitionManager transactionPartitionManager;
+
+    // Add a transaction that just moved to SUCCESS to its monthly bucket and, for expenses,
+    // to its daily category bucket
+    public void recordSettledTransaction(Long userId, Transaction transaction) {
+        LocalDateTime date = transaction.getTransactionDate();
+        rollupRepository.addToRollup(
+            ROLLUP_LOCK_NAMESPACE,
+            userId,
+            date.getYear(),
+            date.getMonthValue(),
+            transaction.getTransactionType().name(),
+            transaction.getAmount()
+        );
+
+        if (transaction.getTransactionType() == TransactionType.EXPENSE) {
+            dailySpendingRepository.addSpending(
+                ROLLUP_LOCK_NAMESPACE,
+                userId,
+                date.toLocalDate(),
+                categoryKey(transaction.getCategory()),
+                transaction.getAmount()
+            );
+            spendingCubeCache.invalidate(userId);
+        }
+    }
+
+    // Get monthly totals for the money flow chart
+    @Transactional(readOnly = true)
+    public List<MonthlyTotal> getMonthlyTransactionData(Long userId, int year) {
+        return rollupRepository.findMonthlyTotals(userId, year);
+    }
+
+    // Get spending per category over whole days [startDate, endDate], largest first, answered
+    // from the user's prefix-sum cube
+    @Transactional(readOnly = true)
+    public List<CategorySpending> getSpendingByCategory(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        return spendingCubeCache
+            .get(userId, () -> dailySpendingRepository.findByUserIdOrderBySpendingDateAsc(userId))
+            .spendingByCategory(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    // Rebuild a user's rollup rows from the raw transactions table. Months already archived out of
+    // it keep their rollups, which are then the only record of their totals.
+    public void rebuildUserRollups(Long userId) {
+        // Exclusive lock waits for in-flight settlements and blocks new ones until we commit
+        rollupRepository.lockUserRollups(ROLLUP_LOCK_NAMESPACE, userId);
+        YearMonth cutoff = archiveCutoff();
+        if (cutoff == null) {
+            rollupRepository.deleteByUserId(userId);
+            dailySpendingRepository.deleteByUserId(userId);
+        } else {
+            rollupRepository.deleteByUserIdFrom(userId, cutoff.getYear(), cutoff.getMonthValue());
+            dailySpendingRepository.deleteByUserIdFrom(userId, cutoff.atDay(1));
+        }
+
+        List<MonthlyTransactionRollup> rollups = new ArrayList<>();
+        for (Object[] data : transactionRepository.getMonthlyRollupSourceData(userId)) {
+            if (isArchived(cutoff, ((Number) data[0]).intValue(), ((Number) data[1]).intValue())) {
+                continue;
+            }
+            rollups.add(new MonthlyTransactionRollup(
+                userId,
+                ((Number) data[0]).intValue(),
+                ((Number) data[1]).intValue(),
+                (TransactionType) data[2],
+                (BigDecimal) data[3],
+                ((Number) data[4]).longValue()
+            ));
+        }
+        rollupRepository.saveAll(rollups);
+
+        List<DailyCategorySpending> dailySpending = new ArrayList<>();
+        for (Object[] data : transactionRepository.getDailySpendingSourceData(userId)) {
+            LocalDate day = toLocalDate(data[0]);
+            if (isArchived(cutoff, day.getYear(), day.getMonthValue())) {
+                continue;
+            }
+            dailySpending.add(new DailyCategorySpending(
+                userId,
+                day,
+                (String) data[1],
+                (BigDecimal) data[2],
+                ((Number) data[3]).longValue()
+            ));
+        }
+        dailySpendingRepository.saveAll(dailySpending);
+        spendingCubeCache.invalidate(userId);
+    }
+
+    // Backfill: rebuild every user's rollups, one transaction per user
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAllRollups() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> userIds = userRepository.findAllIds();
+        for (Long userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildUserRollups(userId));
+        }
+        return userIds.size();
+    }
+
+    // Compare a user's rollup rows with the raw transactions table, describing each mismatch.
+    // Archived months are no longer in that table, so only months still live are compared.
+    @Transactional(readOnly = true)
+    public List<String> findRollupDiscrepancies(Long userId) {
+        YearMonth cutoff = archiveCutoff();
+        Map<String, BigDecimal[]> expected = new HashMap<>();
+        for (Object[] data : transactionRepository.getMonthlyRollupSourceData(userId)) {
+            int year = ((Number) data[0]).intValue();
+            int month = ((Number) data[1]).intValue();
+            if (isArchived(cutoff, year, month)) {
+                continue;
+            }
+            String bucket = bucketKey(year, month, (TransactionType) data[2]);
+            expected.put(bucket, new BigDecimal[]{(BigDecimal) data[3], BigDecimal.valueOf(((Number) data[4]).longValue())});
+        }
+
+        List<String> discrepancies = new ArrayList<>();
+        for (MonthlyTransactionRollup rollup : rollupRepository.findByUserId(userId)) {
+            if (isArchived(cutoff, rollup.getYear(), rollup.getMonth())) {
+                continue;
+            }
+            String bucket = bucketKey(rollup.getYear(), rollup.getMonth(), rollup.getTransactionType());
+            BigDecimal[] raw = expected.remove(bucket);
+            if (raw == null) {
+                discrepancies.add(bucket + ": rollup has " + rollup.getTotalAmount() + " but no raw transactions");
+            } else if (raw[0].compareTo(rollup.getTotalAmount()) != 0
+                    || raw[1].longValue() != rollup.getTransactionCount()) {
+                discrepancies.add(bucket + ": rollup " + rollup.getTotalAmount() + " (" + rollup.getTransactionCount()
+                                  + ") vs raw " + raw[0] + " (" + raw[1] + ")");
+            }
+        }
+        expected.forEach((bucket, raw) ->
+            discrepancies.add(bucket + ": raw " + raw[0] + " (" + raw[1] + ") missing from rollup"));
+
+        Map<String, BigDecimal[]> expectedDaily = new HashMap<>();
+        for (Object[] data : transactionRepository.getDailySpendingSourceData(userId)) {
+            LocalDate day = toLocalDate(data[0]);
+            if (isArchived(cutoff, day.getYear(), day.getMonthValue())) {
+                continue;
+            }
+            expectedDaily.put(day + " " + data[1],
+                new BigDecimal[]{(BigDecimal) data[2], BigDecimal.valueOf(((Number) data[3]).longValue())});
+        }
+        for (DailyCategorySpending daily : dailySpendingRepository.findByUserIdOrderBySpendingDateAsc(userId)) {
+            LocalDate day = daily.getSpendingDate();
+            if (isArchived(cutoff, day.getYear(), day.getMonthValue())) {
+                continue;
+            }
+            String bucket = daily.getSpendingDate() + " " + daily.getCategory();
+            BigDecimal[] raw = expectedDaily.remove(bucket);
+            if (raw == null) {
+                discrepancies.add(bucket + ": daily spending has " + daily.getTotalAmount() + " but no raw transactions");
+            } else if (raw[0].compareTo(daily.getTotalAmount()) != 0
+                    || raw[1].longValue() != daily.getTransactionCount()) {
+                discrepancies.add(bucket + ": daily spending " + daily.getTotalAmount() + " (" + daily.getTransactionCount()
+                                  + ") vs raw " + raw[0] + " (" + raw[1] + ")");
+            }
+        }
+        expectedDaily.forEach((bucket, raw) ->
+            discrepancies.add(bucket + ": raw " + raw[0] + " (" + raw[1] + ") missing from daily spending"));
+
+        return discrepancies;
+    }
+
+    // Remove rollups for a deleted user
+    public void deleteUserRollups(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        dailySpendingRepository.deleteByUserId(userId);
+        spendingCubeCache.invalidate(userId);
+    }
+
+    // First month still in the transactions table, or null when no partition has been archived
+    private YearMonth archiveCutoff() {
+        return transactionPartitionManager != null ? transactionPartitionManager.archiveCutoff().orElse(null) : null;
+    }
+
+    private boolean isArchived(YearMonth cutoff, int year, int month) {
+        return cutoff != null && YearMonth.of(year, month).isBefore(cutoff);
+    }
+
+    // Uncategorised spending is bucketed under an empty category
+    private String categoryKey(String category) {
+        return category != null ? category : "";
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private String bucketKey(int year, int month, TransactionType type) {
+        return String.format("%d-%02d %s", year, month, type);
+    }
+}
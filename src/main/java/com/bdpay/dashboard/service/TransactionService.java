@@ -3,20 +3,37 @@ package com.bdpay.dashboard.service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bdpay.dashboard.dto.CategoryComparison;
+import com.bdpay.dashboard.dto.CategorySpending;
+import com.bdpay.dashboard.dto.MonthlyTotal;
+import com.bdpay.dashboard.dto.TransactionView;
 import com.bdpay.dashboard.entity.Account;
 import com.bdpay.dashboard.entity.Transaction;
 import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
 import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.event.TransactionChangedEvent;
+import com.bdpay.dashboard.event.TransactionRemovedEvent;
+import com.bdpay.dashboard.ledger.BalanceLedger;
 import com.bdpay.dashboard.repository.AccountRepository;
 import com.bdpay.dashboard.repository.TransactionRepository;
 
@@ -30,24 +47,115 @@ public class TransactionService {
     @Autowired
     private AccountRepository accountRepository;
     
-    // Get recent transactions for user (for dashboard table)
-    public List<Transaction> getRecentTransactions(Long userId) {
-        return transactionRepository.findTop10ByUserIdOrderByTransactionDateDesc(userId);
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+    
+    @Autowired
+    private RecentActivityCache recentActivityCache;
+    
+    @Autowired(required = false)
+    private BalanceLedger balanceLedger;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Get recent transactions for user (for dashboard table), served from the in-memory window
+    @Transactional(readOnly = true)
+    public List<TransactionView> getRecentTransactions(Long userId) {
+        return recentActivityCache.getRecent(userId, () ->
+            transactionRepository.findUserTransactionsFirstPage(userId, Limit.of(recentActivityCache.capacity())));
     }
     
     // Get paginated transactions for user
-    public Page<Transaction> getUserTransactions(Long userId, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<TransactionView> getUserTransactions(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return transactionRepository.findByUserIdOrderByTransactionDateDesc(userId, pageable);
     }
     
     // Get transactions by account
-    public Page<Transaction> getAccountTransactions(Long accountId, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<TransactionView> getAccountTransactions(Long accountId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return transactionRepository.findByAccountIdOrderByTransactionDateDesc(accountId, pageable);
     }
     
+    // Get a keyset page of a user's transactions (cost does not grow with page depth)
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionView> getUserTransactionsByCursor(Long userId, String cursor, int size,
+                                                                  boolean includeTotal) {
+        return fetchCursorPage(cursor, size,
+            limit -> transactionRepository.findUserTransactionsFirstPage(userId, limit),
+            (key, limit) -> transactionRepository.findUserTransactionsBefore(
+                userId, key.getTransactionDate(), key.getId(), limit),
+            (key, limit) -> transactionRepository.findUserTransactionsAfter(
+                userId, key.getTransactionDate(), key.getId(), limit),
+            includeTotal ? transactionRepository.countByUserId(userId) : null);
+    }
+    
+    // Get a keyset page of an account's transactions
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionView> getAccountTransactionsByCursor(Long accountId, String cursor, int size,
+                                                                     boolean includeTotal) {
+        return fetchCursorPage(cursor, size,
+            limit -> transactionRepository.findAccountTransactionsFirstPage(accountId, limit),
+            (key, limit) -> transactionRepository.findAccountTransactionsBefore(
+                accountId, key.getTransactionDate(), key.getId(), limit),
+            (key, limit) -> transactionRepository.findAccountTransactionsAfter(
+                accountId, key.getTransactionDate(), key.getId(), limit),
+            includeTotal ? transactionRepository.countByAccountId(accountId) : null);
+    }
+    
+    // Fetch one row more than requested to learn whether another page exists in that direction
+    private CursorPage<TransactionView> fetchCursorPage(String cursor, int size,
+                                                       Function<Limit, List<TransactionView>> firstPage,
+                                                       BiFunction<TransactionCursor, Limit, List<TransactionView>> olderThan,
+                                                       BiFunction<TransactionCursor, Limit, List<TransactionView>> newerThan,
+                                                       Long totalElements) {
+        Limit limit = Limit.of(size + 1);
+        List<TransactionView> rows;
+        boolean hasOlder;
+        boolean hasNewer;
+        
+        if (cursor == null || cursor.isBlank()) {
+            rows = new ArrayList<>(firstPage.apply(limit));
+            hasOlder = rows.size() > size;
+            hasNewer = false;
+            if (hasOlder) {
+                rows = rows.subList(0, size);
+            }
+        } else {
+            TransactionCursor key = TransactionCursor.decode(cursor);
+            if (key.getDirection() == TransactionCursor.Direction.NEXT) {
+                rows = new ArrayList<>(olderThan.apply(key, limit));
+                hasOlder = rows.size() > size;
+                hasNewer = true;
+                if (hasOlder) {
+                    rows = rows.subList(0, size);
+                }
+            } else {
+                // Newer rows come back oldest first; trim the far end and restore newest-first order
+                rows = new ArrayList<>(newerThan.apply(key, limit));
+                hasNewer = rows.size() > size;
+                hasOlder = true;
+                if (hasNewer) {
+                    rows = rows.subList(0, size);
+                }
+                rows = new ArrayList<>(rows);
+                Collections.reverse(rows);
+            }
+        }
+        
+        String nextCursor = hasOlder && !rows.isEmpty()
+            ? TransactionCursor.after(rows.get(rows.size() - 1)).encode() : null;
+        String previousCursor = hasNewer && !rows.isEmpty()
+            ? TransactionCursor.before(rows.get(0)).encode() : null;
+        
+        return new CursorPage<>(rows, nextCursor, previousCursor, totalElements);
+    }
+    
     // Get transaction by ID
+    @Transactional(readOnly = true)
     public Optional<Transaction> getTransactionById(Long transactionId) {
         return transactionRepository.findById(transactionId);
     }
@@ -68,15 +176,22 @@ public class TransactionService {
         transaction.setAccount(account);
         transaction.setTransactionDate(LocalDateTime.now());
         
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        TransactionView view = TransactionView.from(saved);
+        recentActivityCache.transactionSaved(saved.getUserId(), view);
+        eventPublisher.publishEvent(new TransactionChangedEvent(saved.getUserId(), view));
+        return saved;
     }
     
-    // Process pending transaction (approve/reject)
+    // Process pending transaction (approve/reject). Found by id alone, which probes every monthly
+    // partition's primary key index (see db/partition-transactions.sql)
     public Transaction processTransaction(Long transactionId, TransactionStatus newStatus) {
         Transaction transaction = transactionRepository.findById(transactionId)
             .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
         
-        if (transaction.getStatus() != TransactionStatus.PENDING) {
+        // Claimed with a conditional update, so concurrent calls settle it at most once
+        if (transaction.getStatus() != TransactionStatus.PENDING
+                || transactionRepository.updateStatusIfPending(transactionId, newStatus) == 0) {
             throw new RuntimeException("Only pending transactions can be processed");
         }
         
@@ -85,38 +200,76 @@ public class TransactionService {
         // Update account balance if transaction is successful
         if (newStatus == TransactionStatus.SUCCESS) {
             Account account = transaction.getAccount();
-            account.setPreviousBalance(account.getCurrentBalance());
             
-            if (transaction.getTransactionType() == TransactionType.INCOME) {
-                account.setCurrentBalance(account.getCurrentBalance().add(transaction.getAmount()));
+            if (balanceLedger != null) {
+                // The ledger applies the change once this transaction commits
+                BigDecimal delta = transaction.getTransactionType() == TransactionType.INCOME
+                    ? transaction.getAmount()
+                    : transaction.getAmount().negate();
+                balanceLedger.settle(transactionId, account.getId(), delta);
             } else {
-                account.setCurrentBalance(account.getCurrentBalance().subtract(transaction.getAmount()));
+                account.setPreviousBalance(account.getCurrentBalance());
+                
+                if (transaction.getTransactionType() == TransactionType.INCOME) {
+                    account.setCurrentBalance(account.getCurrentBalance().add(transaction.getAmount()));
+                } else {
+                    account.setCurrentBalance(account.getCurrentBalance().subtract(transaction.getAmount()));
+                }
+                
+                accountRepository.save(account);
             }
             
-            accountRepository.save(account);
+            // Keep the monthly money flow rollup in step with settled transactions
+            transactionRollupService.recordSettledTransaction(transaction.getUserId(), transaction);
+            eventPublisher.publishEvent(new AccountsChangedEvent(transaction.getUserId(), "transaction-settled"));
         }
         
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        TransactionView view = TransactionView.from(saved);
+        recentActivityCache.transactionSaved(saved.getUserId(), view);
+        eventPublisher.publishEvent(new TransactionChangedEvent(saved.getUserId(), view));
+        return saved;
     }
     
-    // Get monthly data for money flow chart
-    public List<Object[]> getMonthlyTransactionData(Long userId, int year) {
-        return transactionRepository.getMonthlyTransactionData(userId, year);
+    // Get monthly data for money flow chart (served from the pre-aggregated rollup)
+    @Transactional(readOnly = true)
+    public List<MonthlyTotal> getMonthlyTransactionData(Long userId, int year) {
+        return transactionRollupService.getMonthlyTransactionData(userId, year);
     }
     
     // Get monthly data for current year
-    public List<Object[]> getCurrentYearTransactionData(Long userId) {
+    @Transactional(readOnly = true)
+    public List<MonthlyTotal> getCurrentYearTransactionData(Long userId) {
         int currentYear = Year.now().getValue();
         return getMonthlyTransactionData(userId, currentYear);
     }
     
-    // Get spending by category for statistics panel
-    public List<Object[]> getSpendingByCategory(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return transactionRepository.getSpendingByCategory(userId, startDate, endDate);
+    // Get spending by category for statistics panel (served from the daily prefix-sum cube)
+    @Transactional(readOnly = true)
+    public List<CategorySpending> getSpendingByCategory(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        return transactionRollupService.getSpendingByCategory(userId, startDate, endDate);
+    }
+    
+    // Compare spending by category across two periods, ordered by current spending
+    @Transactional(readOnly = true)
+    public List<CategoryComparison> compareSpendingByCategory(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                                              LocalDateTime previousStartDate, LocalDateTime previousEndDate) {
+        // category -> {current, previous}
+        Map<String, BigDecimal[]> rows = new LinkedHashMap<>();
+        for (CategorySpending data : getSpendingByCategory(userId, startDate, endDate)) {
+            rows.put(data.category(), new BigDecimal[]{data.amount(), BigDecimal.ZERO});
+        }
+        for (CategorySpending data : getSpendingByCategory(userId, previousStartDate, previousEndDate)) {
+            rows.computeIfAbsent(data.category(), category -> new BigDecimal[]{BigDecimal.ZERO, null})[1] = data.amount();
+        }
+        List<CategoryComparison> comparison = new ArrayList<>(rows.size());
+        rows.forEach((category, amounts) -> comparison.add(new CategoryComparison(category, amounts[0], amounts[1])));
+        return comparison;
     }
 
     // Get current quarter spending
-    public List<Object[]> getCurrentQuarterSpendingByCategory(Long userId) {
+    @Transactional(readOnly = true)
+    public List<CategorySpending> getCurrentQuarterSpendingByCategory(Long userId) {
         LocalDateTime now = LocalDateTime.now();
         int currentQuarter = ((now.getMonthValue() - 1) / 3) + 1;
         int quarterStartMonth = (currentQuarter - 1) * 3 + 1;
@@ -129,7 +282,8 @@ public class TransactionService {
     }
 
     // Get current year spending
-    public List<Object[]> getCurrentYearSpendingByCategory(Long userId) {
+    @Transactional(readOnly = true)
+    public List<CategorySpending> getCurrentYearSpendingByCategory(Long userId) {
         LocalDateTime startOfYear = LocalDateTime.now().withDayOfYear(1)
                                                 .withHour(0).withMinute(0).withSecond(0);
         LocalDateTime endOfYear = LocalDateTime.now();
@@ -138,32 +292,57 @@ public class TransactionService {
     }
     
     // Get current month spending by category
-    public List<Object[]> getCurrentMonthSpendingByCategory(Long userId) {
+    @Transactional(readOnly = true)
+    public List<CategorySpending> getCurrentMonthSpendingByCategory(Long userId) {
         LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
         LocalDateTime endOfMonth = startOfMonth.plusMonths(1).minusSeconds(1);
         return getSpendingByCategory(userId, startOfMonth, endOfMonth);
     }
     
     // Calculate total income for period
+    @Transactional(readOnly = true)
     public BigDecimal getTotalIncome(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         BigDecimal total = transactionRepository.getTotalIncomeByUserIdAndDateRange(userId, startDate, endDate);
         return total != null ? total : BigDecimal.ZERO;
     }
     
     // Calculate total expenses for period
+    @Transactional(readOnly = true)
     public BigDecimal getTotalExpenses(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         BigDecimal total = transactionRepository.getTotalExpensesByUserIdAndDateRange(userId, startDate, endDate);
         return total != null ? total : BigDecimal.ZERO;
     }
     
     // Get pending transactions
+    @Transactional(readOnly = true)
     public List<Transaction> getPendingTransactions(Long userId) {
         return transactionRepository.findPendingTransactionsByUserId(userId);
     }
     
-    // Search transactions
-    public List<Transaction> searchTransactions(Long userId, String searchTerm) {
-        return transactionRepository.searchTransactionsByBusinessName(userId, searchTerm);
+    // Search transactions (ranked; one extra row is fetched so callers can tell if more pages exist).
+    // The trigram ranking is native SQL, so rows are read as entities in this read-only
+    // transaction (no dirty-check snapshots) and handed out as views.
+    @Transactional(readOnly = true)
+    public List<TransactionView> searchTransactions(Long userId, String searchTerm, int page, int size) {
+        String term = searchTerm.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLikePattern(term);
+        return transactionRepository.searchTransactions(
+            userId, term, "%" + escaped + "%", escaped + "%", size + 1, page * size)
+            .stream()
+            .map(TransactionView::from)
+            .toList();
+    }
+    
+    // Suggest business names for a search prefix
+    @Transactional(readOnly = true)
+    public List<String> suggestBusinessNames(Long userId, String prefix, int limit) {
+        String escaped = escapeLikePattern(prefix.trim().toLowerCase(Locale.ROOT));
+        return transactionRepository.suggestBusinessNames(userId, escaped + "%", limit);
+    }
+    
+    // Escape LIKE wildcards so user input is matched literally
+    private String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
     // Delete transaction
@@ -175,7 +354,10 @@ public class TransactionService {
             throw new RuntimeException("Cannot delete successful transactions");
         }
         
+        Long userId = transaction.getUserId();
         transactionRepository.delete(transaction);
+        recentActivityCache.transactionRemoved(userId, transactionId);
+        eventPublisher.publishEvent(new TransactionRemovedEvent(userId, transactionId));
     }
     
     // Initialize sample transactions for new user
@@ -201,12 +383,12 @@ public class TransactionService {
                          new BigDecimal("123.00"), TransactionType.EXPENSE, "Marketing campaign");
         
         // Process some transactions
-        List<Transaction> recentTransactions = getRecentTransactions(userId);
+        List<TransactionView> recentTransactions = getRecentTransactions(userId);
         if (recentTransactions.size() >= 2) {
-            processTransaction(recentTransactions.get(1).getId(), TransactionStatus.SUCCESS);
+            processTransaction(recentTransactions.get(1).id(), TransactionStatus.SUCCESS);
         }
         if (recentTransactions.size() >= 3) {
-            processTransaction(recentTransactions.get(2).getId(), TransactionStatus.FAILED);
+            processTransaction(recentTransactions.get(2).id(), TransactionStatus.FAILED);
         }
     }
 }
\ No newline at end of file
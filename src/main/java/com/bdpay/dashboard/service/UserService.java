@@ -4,12 +4,22 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bdpay.dashboard.entity.User;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
 import com.bdpay.dashboard.repository.UserRepository;
+import com.bdpay.dashboard.security.PasswordHasher;
+import com.bdpay.dashboard.security.PasswordHasher.HashingRejectedException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Service
 @Transactional
@@ -19,34 +29,65 @@ public class UserService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+    
+    @Autowired
+    private RecentActivityCache recentActivityCache;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
     
     // Get all users (admin function)
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
     // Get user by ID
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long userId) {
         return userRepository.findById(userId);
     }
     
     // Get user by ID with accounts loaded
+    @Transactional(readOnly = true)
     public Optional<User> getUserWithAccounts(Long userId) {
         return userRepository.findByIdWithAccounts(userId);
     }
     
     // Get user by email (for login)
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
     
     // Get user by email with accounts
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmailWithAccounts(String email) {
         return userRepository.findByEmailWithAccounts(email);
     }
     
-    // Register new user
+    // Register new user. Hashes outside a transaction like authenticate, then saves in a short one.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(String firstName, String lastName, String email, String password) {
         // Check if email already exists
         if (userRepository.existsByEmail(email)) {
@@ -58,9 +99,9 @@ public class UserService {
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHasher.encode(password));
         
-        return userRepository.save(user);
+        return writeTransaction.execute(status -> userRepository.save(user));
     }
     
     // Update user profile
@@ -74,31 +115,84 @@ public class UserService {
         return userRepository.save(user);
     }
     
-    // Change password
+    // Change password. Both BCrypt calls run outside a transaction; the write only goes through
+    // if the password is still the one that was verified.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long userId, String oldPassword, String newPassword) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         // Verify old password
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        String previousHash = user.getPassword();
+        if (!passwordHasher.matches(oldPassword, previousHash)) {
             throw new RuntimeException("Current password is incorrect");
         }
         
         // Update with new password
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String newHash = passwordHasher.encode(newPassword);
+        writeTransaction.executeWithoutResult(status -> {
+            User current = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+            if (!previousHash.equals(current.getPassword())) {
+                throw new RuntimeException("Password was changed by another request; try again");
+            }
+            current.setPassword(newHash);
+        });
     }
     
-    // Validate login credentials
-    public boolean validateCredentials(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            return passwordEncoder.matches(password, userOpt.get().getPassword());
+    // Check login credentials with a single lookup, returning the user when they match. Runs
+    // outside a transaction so no connection is held while BCrypt works on the hashing pool.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<User> authenticate(String email, String password) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Optional<User> userOpt = userRepository.findByEmail(email);
+            if (userOpt.isEmpty()) {
+                passwordHasher.matchesNothing(password);
+                outcome = "invalid";
+                return Optional.empty();
+            }
+
+            User user = userOpt.get();
+            if (!passwordHasher.matches(password, user.getPassword())) {
+                outcome = "invalid";
+                return Optional.empty();
+            }
+
+            if (passwordHasher.needsRehash(user.getPassword())) {
+                rehashPassword(user, password);
+            }
+            outcome = "success";
+            return userOpt;
+        } catch (HashingRejectedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("auth.login")
+                .description("Login latency by outcome (success, invalid, rejected, error)")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    // Store the password again at the configured cost factor. Skipped if the password changed
+    // since the login read it; a failure here never fails the login itself.
+    private void rehashPassword(User user, String password) {
+        String previousHash = user.getPassword();
+        try {
+            String newHash = passwordHasher.encode(password);
+            writeTransaction.executeWithoutResult(status ->
+                userRepository.findById(user.getId())
+                    .filter(current -> previousHash.equals(current.getPassword()))
+                    .ifPresent(current -> current.setPassword(newHash)));
+        } catch (RuntimeException e) {
+            System.out.println("Password rehash for user " + user.getId() + " skipped: " + e.getMessage());
         }
-        return false;
     }
     
     // Check if email exists
+    @Transactional(readOnly = true)
     public boolean emailExists(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -108,7 +202,11 @@ public class UserService {
         if (!userRepository.existsById(userId)) {
             throw new RuntimeException("User not found with id: " + userId);
         }
+        transactionRollupService.deleteUserRollups(userId);
         userRepository.deleteById(userId);
+        recentActivityCache.invalidate(userId);
+        dashboardService.evictUser(userId);
+        eventPublisher.publishEvent(new AccountsChangedEvent(userId, "user-deleted"));
     }
 }
 
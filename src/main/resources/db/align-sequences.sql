@@ -0,0 +1,4 @@
+-- Transaction IDs come from transactions_seq in blocks of 50 (Hibernate pooled optimizer).
+-- Move the sequence past any IDs issued before the switch from IDENTITY columns so that
+-- allocated blocks never overlap existing rows. Only ever moves the sequence forward.
+SELECT setval('transactions_seq', GREATEST((SELECT last_value FROM transactions_seq), (SELECT COALESCE(MAX(id), 1) FROM transactions)));
@@ -0,0 +1,52 @@
+-- Range-partition transactions by month of transaction_date (PostgreSQL declarative partitioning).
+-- Hibernate creates transactions as a plain table; on the first startup after that it is swapped
+-- for a partitioned table with one partition per month of existing data, the current month and the
+-- next three, plus a default partition for anything outside them. Later months are added by
+-- TransactionPartitionManager. A no-op once transactions is partitioned.
+-- The primary key has to include the partition key, so it becomes (id, transaction_date).
+-- A lookup by id alone (processing or deleting one transaction) can't be pruned: it probes the
+-- primary key index of each partition, one index probe per month kept. That is accepted for those
+-- single-row writes; transaction-partitions.retention-months bounds how many partitions there are.
+DO $$
+DECLARE
+    first_month date;
+    last_month date;
+    month date;
+    fk record;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('transactions')) IS DISTINCT FROM 'r' THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'transactions_pkey') THEN
+        ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+    END IF;
+    UPDATE transactions_unpartitioned SET transaction_date = coalesce(created_at, now())
+        WHERE transaction_date IS NULL;
+
+    CREATE TABLE transactions (LIKE transactions_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (transaction_date);
+    ALTER TABLE transactions ALTER COLUMN transaction_date SET NOT NULL;
+    ALTER TABLE transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_date);
+    FOR fk IN SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint
+              WHERE conrelid = 'transactions_unpartitioned'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE transactions ADD CONSTRAINT %I %s', fk.conname, fk.definition);
+    END LOOP;
+
+    SELECT date_trunc('month', coalesce(min(transaction_date), now()))::date,
+           date_trunc('month', greatest(coalesce(max(transaction_date), now()), now()) + interval '3 months')::date
+        INTO first_month, last_month
+        FROM transactions_unpartitioned;
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_' || to_char(month, '"y"YYYY"m"MM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+    CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+    INSERT INTO transactions SELECT * FROM transactions_unpartitioned;
+    DROP TABLE transactions_unpartitioned;
+END
+$$;
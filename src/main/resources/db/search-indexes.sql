@@ -0,0 +1,10 @@
+-- Trigram indexes behind transaction search (requires the pg_trgm extension).
+-- The expression must match the one used by TransactionRepository.searchTransactions exactly.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_search_trgm ON transactions
+    USING gin ((lower(business_name || ' ' || coalesce(category, '') || ' ' || coalesce(description, ''))) gin_trgm_ops);
+
+-- Prefix autocomplete on business name
+CREATE INDEX IF NOT EXISTS idx_transactions_business_name_prefix ON transactions
+    (lower(business_name) text_pattern_ops);
@@ -0,0 +1,35 @@
+-- transactions.user_id: the owning account's user, so user-scoped queries need no join to accounts.
+-- Backfilled once, then NOT NULL. The (account_id, user_id) foreign key keeps it equal to
+-- accounts.user_id, also if an account ever changes owner.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_attribute
+                   WHERE attrelid = 'transactions'::regclass AND attname = 'user_id' AND attnotnull) THEN
+        ALTER TABLE transactions ADD COLUMN IF NOT EXISTS user_id bigint;
+        UPDATE transactions t SET user_id = a.user_id FROM accounts a
+            WHERE a.id = t.account_id AND t.user_id IS NULL;
+        ALTER TABLE transactions ALTER COLUMN user_id SET NOT NULL;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'accounts_id_user_id_key') THEN
+        ALTER TABLE accounts ADD CONSTRAINT accounts_id_user_id_key UNIQUE (id, user_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'transactions_account_user_fkey') THEN
+        ALTER TABLE transactions ADD CONSTRAINT transactions_account_user_fkey
+            FOREIGN KEY (account_id, user_id) REFERENCES accounts (id, user_id) ON UPDATE CASCADE;
+    END IF;
+END
+$$;
+
+-- History and keyset pages per user, newest first, in the (transaction_date DESC, id DESC) cursor order
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, transaction_date DESC, id DESC);
+
+-- The same per account
+CREATE INDEX IF NOT EXISTS idx_transactions_account_date ON transactions (account_id, transaction_date DESC, id DESC);
+
+-- Pending list and counts by status
+CREATE INDEX IF NOT EXISTS idx_transactions_user_status ON transactions (user_id, status);
+
+-- Income/expense totals and typed lists over a date range; status and amount included for index-only sums
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_date ON transactions (user_id, transaction_type, transaction_date)
+    INCLUDE (status, amount);
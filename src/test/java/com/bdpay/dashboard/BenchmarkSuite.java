@@ -0,0 +1,109 @@
+package com.bdpay.dashboard;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Runs every JMH benchmark in the test classes and writes one JSON report, target/jmh-results.json.
+// Given a previous report as -Dbenchmark.baseline, each score is compared with its baseline and
+// the run fails (exit code 1) when one got worse by more than -Dbenchmark.max-regression
+// (a fraction, default 0.10) beyond the two runs' combined error. Run with:
+//   mvn verify -Pbenchmarks [-Dbenchmark.baseline=path/to/jmh-results.json] [-Dbenchmark.include=Jwt]
+public class BenchmarkSuite {
+
+    private static final String RESULT_FILE = "target/jmh-results.json";
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("benchmark.include", ".*Benchmark");
+        String baseline = System.getProperty("benchmark.baseline", "");
+        double maxRegression = Double.parseDouble(System.getProperty("benchmark.max-regression", "0.10"));
+
+        new Runner(new OptionsBuilder()
+            .include(include.isBlank() ? ".*Benchmark" : include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULT_FILE)
+            .build()).run();
+        System.out.println("Benchmark results written to " + RESULT_FILE);
+
+        if (baseline.isBlank()) {
+            return;
+        }
+        List<String> regressions = compare(new File(baseline), new File(RESULT_FILE), maxRegression);
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " benchmark(s) regressed by more than "
+                + Math.round(maxRegression * 100) + "%:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + baseline);
+    }
+
+    // Benchmarks whose score moved the wrong way by more than the allowed fraction
+    static List<String> compare(File baselineFile, File currentFile, double maxRegression) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = byKey(objectMapper.readTree(baselineFile));
+        Map<String, JsonNode> current = byKey(objectMapper.readTree(currentFile));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(current).entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("  new       " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            double error = finite(before.path("primaryMetric").path("scoreError").asDouble())
+                + finite(after.path("primaryMetric").path("scoreError").asDouble());
+            if (beforeScore == 0) {
+                continue;
+            }
+
+            // Throughput: higher is better; every other mode measures time
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double worse = higherIsBetter ? beforeScore - afterScore : afterScore - beforeScore;
+            double change = worse / beforeScore;
+            boolean regressed = change > maxRegression && worse > error;
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            String line = String.format("%-9s %s: %.3f -> %.3f %s (%+.1f%%)",
+                regressed ? "REGRESSED" : "ok", entry.getKey(), beforeScore, afterScore, unit,
+                (afterScore - beforeScore) / beforeScore * 100);
+            System.out.println("  " + line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        }
+        return regressions;
+    }
+
+    // benchmark name plus its @Param values, e.g. "...PasswordHashingBenchmark.verifyPassword{strength=10}"
+    private static Map<String, JsonNode> byKey(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText();
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields()
+                .forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            if (!params.isEmpty()) {
+                key += params;
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+}
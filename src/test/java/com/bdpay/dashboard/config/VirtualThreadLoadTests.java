@@ -0,0 +1,188 @@
+package com.bdpay.dashboard.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bdpay.dashboard.DashboardApiApplication;
+import com.bdpay.dashboard.entity.User;
+import com.bdpay.dashboard.security.JwtTokenUtil;
+import com.bdpay.dashboard.service.AccountService;
+import com.bdpay.dashboard.service.TransactionService;
+import com.bdpay.dashboard.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Throughput and latency of the JPA-bound endpoints with Tomcat on platform threads versus virtual
+// threads, each behind the same connection limit. Excluded from the normal build; run with
+//   mvn test -Ploadtest
+// Tune with -Dloadtest.concurrency, -Dloadtest.warmup-seconds and -Dloadtest.duration-seconds.
+// Results are printed and written to target/loadtest-virtual-threads.json.
+@Tag("loadtest")
+class VirtualThreadLoadTests {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 1000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 20);
+
+    @Test
+    void compareVirtualAndPlatformThreads() throws Exception {
+        Map<String, Object> platform = runScenario(false);
+        Map<String, Object> virtual = runScenario(true);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", CONCURRENCY);
+        report.put("durationSeconds", DURATION_SECONDS);
+        report.put("platform", platform);
+        report.put("virtual", virtual);
+        writeReport(report);
+
+        assertEquals(0L, platform.get("acquireTimeouts"));
+        assertEquals(0L, virtual.get("acquireTimeouts"));
+    }
+
+    private Map<String, Object> runScenario(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DashboardApiApplication.class)
+                .profiles("test")
+                .properties(
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "spring.jpa.show-sql=false",
+                    "rate-limit.enabled=false",
+                    "logging.level.com.bdpay.dashboard=INFO",
+                    "logging.level.org.springframework.security=INFO")
+                .run()) {
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String baseUrl = "http://localhost:" + port + "/api";
+
+            UserService userService = context.getBean(UserService.class);
+            User user = userService.registerUser("Load", "Test",
+                "loadtest-" + UUID.randomUUID() + "@bdpay.com", "password123");
+            context.getBean(AccountService.class).initializeDefaultAccounts(user.getId());
+            context.getBean(TransactionService.class).initializeSampleTransactions(user.getId());
+            String token = context.getBean(JwtTokenUtil.class).generateToken(user.getEmail(), user.getId());
+
+            List<URI> targets = List.of(
+                URI.create(baseUrl + "/accounts/user/" + user.getId()),
+                URI.create(baseUrl + "/transactions/user/" + user.getId() + "?page=0&size=20"),
+                URI.create(baseUrl + "/transactions/statistics/user/" + user.getId()));
+
+            try {
+                drive(targets, token, WARMUP_SECONDS);
+                Map<String, Object> result = drive(targets, token, DURATION_SECONDS);
+                result.put("mode", virtualThreads ? "virtual" : "platform");
+
+                ConnectionLimitingDataSource limiter = context.getBean(ConnectionLimitingDataSource.class);
+                result.put("maxWaitingForConnection", limiter.getMaxWaiting());
+                result.put("acquireTimeouts", limiter.getAcquireTimeouts());
+                if (virtualThreads) {
+                    PinnedThreadMonitor monitor = context.getBean(PinnedThreadMonitor.class);
+                    result.put("pinnedEvents", monitor.getPinnedEvents());
+                    result.put("pinningSites", monitor.getDistinctSites());
+                }
+                System.out.println("Load test result: " + result);
+                return result;
+            } finally {
+                userService.deleteUser(user.getId());
+            }
+        }
+    }
+
+    // Closed-loop load: CONCURRENCY clients, each issuing its next request as soon as the last returns
+    private Map<String, Object> drive(List<URI> targets, String token, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        LongAdder failures = new LongAdder();
+
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                int offset = c;
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(targets.get((offset + count) % targets.size()))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(60))
+                            .GET()
+                            .build();
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.increment();
+                            }
+                        } catch (IOException e) {
+                            failures.increment();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - started;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = clients.stream().map(this::join).flatMapToLong(Arrays::stream).sorted().toArray();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", all.length);
+        result.put("failures", failures.sum());
+        result.put("throughputPerSecond", all.length / (double) seconds);
+        result.put("p50Ms", percentileMillis(all, 0.50));
+        result.put("p99Ms", percentileMillis(all, 0.99));
+        result.put("maxMs", all.length == 0 ? 0 : all[all.length - 1] / 1_000_000.0);
+        return result;
+    }
+
+    private long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new RuntimeException("Load client failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private void writeReport(Map<String, Object> report) throws IOException {
+        Path output = Path.of("target", "loadtest-virtual-threads.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println("Load test report written to " + output.toAbsolutePath());
+    }
+}
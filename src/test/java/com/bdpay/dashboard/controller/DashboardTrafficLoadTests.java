@@ -0,0 +1,376 @@
+package com.bdpay.dashboard.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bdpay.dashboard.DashboardApiApplication;
+import com.bdpay.dashboard.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// End-to-end dashboard traffic: boots the app against the configured database, registers users
+// through /auth/register and replays browser-like sessions with the JWTs AuthController issues.
+// Each session logs in, loads the dashboard (accounts, recent, chart, statistics) and then performs
+// a weighted mix of history paging, search, dashboard refreshes, create + process and transfers.
+// Excluded from the normal build; run with
+//   mvn test -Ploadtest -Dtest=DashboardTrafficLoadTests
+// Tune with -Dloadtest.users, -Dloadtest.concurrency, -Dloadtest.warmup-seconds,
+// -Dloadtest.duration-seconds, -Dloadtest.actions-per-session and -Dloadtest.profiles.
+// Throughput, p50/p99/p999 and error rate per endpoint are written to
+// target/loadtest-dashboard-traffic.json. Given a previous report as -Dloadtest.baseline, the test
+// fails when an endpoint's p99 or throughput got worse by more than -Dloadtest.max-regression
+// (a fraction, default 0.20) or its error rate rose by more than one percentage point.
+@Tag("loadtest")
+class DashboardTrafficLoadTests {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 50);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 60);
+    private static final int ACTIONS_PER_SESSION = Integer.getInteger("loadtest.actions-per-session", 10);
+    private static final String PROFILES = System.getProperty("loadtest.profiles", "test");
+    private static final String BASELINE = System.getProperty("loadtest.baseline", "");
+    private static final double MAX_REGRESSION = Double.parseDouble(System.getProperty("loadtest.max-regression", "0.20"));
+    private static final String PASSWORD = "password123";
+    private static final String[] SEARCH_TERMS = {"gym", "bank", "ads", "deposit", "merchant", "payment"};
+    private static final String[] CATEGORIES = {"Payment", "Deposit", "Shopping", "Transfer"};
+    private static final Path REPORT = Path.of("target", "loadtest-dashboard-traffic.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder sessions = new LongAdder();
+    private HttpClient client;
+    private String baseUrl;
+
+    @Test
+    void replayDashboardSessions() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DashboardApiApplication.class)
+                .profiles(PROFILES.split(","))
+                .properties(
+                    "server.port=0",
+                    "spring.jpa.show-sql=false",
+                    "rate-limit.enabled=false",
+                    "logging.level.com.bdpay.dashboard=INFO",
+                    "logging.level.org.springframework.security=INFO")
+                .run()) {
+
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+            List<LoadUser> users = registerUsers();
+            try {
+                drive(users, WARMUP_SECONDS);
+                endpoints.values().forEach(Endpoint::reset);
+                sessions.reset();
+                drive(users, DURATION_SECONDS);
+
+                Map<String, Object> report = report();
+                writeReport(report);
+                if (!BASELINE.isBlank()) {
+                    List<String> regressions = compare(objectMapper.readTree(Path.of(BASELINE).toFile()), report);
+                    assertTrue(regressions.isEmpty(), regressions.size() + " endpoint(s) regressed against "
+                        + BASELINE + ": " + regressions);
+                }
+            } finally {
+                UserService userService = context.getBean(UserService.class);
+                users.forEach(user -> userService.deleteUser(user.id()));
+            }
+        }
+    }
+
+    // Sign up through the API so every user gets the default accounts and sample history
+    private List<LoadUser> registerUsers() throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Future<LoadUser>> pending = new ArrayList<>();
+        // A few at a time: registration hashes a password and must not overflow the hashing queue
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < USERS; i++) {
+                String email = "loadtest-" + runId + "-" + i + "@bdpay.com";
+                pending.add(executor.submit(() -> {
+                    JsonNode body = objectMapper.readTree(postJson("/auth/register", Map.of(
+                        "firstName", "Load", "lastName", "Test", "email", email, "password", PASSWORD)).body());
+                    return new LoadUser(body.path("user").path("id").asLong(), email);
+                }));
+            }
+        }
+        List<LoadUser> users = new ArrayList<>();
+        for (Future<LoadUser> future : pending) {
+            users.add(future.get());
+        }
+        System.out.println("Registered " + users.size() + " load test users");
+        return users;
+    }
+
+    // Closed-loop load: CONCURRENCY virtual users, each starting a new session as soon as one ends
+    private void drive(List<LoadUser> users, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<?>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                int offset = c;
+                clients.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(offset);
+                    while (System.nanoTime() < deadline) {
+                        session(users.get(random.nextInt(users.size())), random, deadline);
+                        sessions.increment();
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> future : clients) {
+            future.get();
+        }
+    }
+
+    private void session(LoadUser user, SplittableRandom random, long deadline) throws Exception {
+        HttpResponse<String> login = send("POST /auth/login", HttpRequest.newBuilder(uri("/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                Map.of("email", user.email(), "password", PASSWORD)))));
+        if (login == null) {
+            // Hashing pool busy (503) or the server dropped us: back off like a browser would
+            Thread.sleep(1000);
+            return;
+        }
+        String token = objectMapper.readTree(login.body()).path("token").asText();
+        long userId = user.id();
+
+        HttpResponse<String> accounts = get("GET /accounts/user/{id}", "/accounts/user/" + userId, token);
+        get("GET /transactions/recent/user/{id}", "/transactions/recent/user/" + userId, token);
+        get("GET /transactions/chart/user/{id}", "/transactions/chart/user/" + userId + "?year=" + Year.now(), token);
+        get("GET /transactions/statistics/user/{id}", "/transactions/statistics/user/" + userId + "?period=current", token);
+        List<Long> accountIds = new ArrayList<>();
+        if (accounts != null) {
+            objectMapper.readTree(accounts.body()).path("accounts")
+                .forEach(account -> accountIds.add(account.path("id").asLong()));
+        }
+
+        for (int action = 0; action < ACTIONS_PER_SESSION && System.nanoTime() < deadline; action++) {
+            int roll = random.nextInt(100);
+            if (roll < 30) {
+                history(userId, token, 1 + random.nextInt(3));
+            } else if (roll < 45) {
+                String query = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                get("GET /transactions/search/user/{id}", "/transactions/search/user/" + userId + "?query="
+                    + URLEncoder.encode(query, StandardCharsets.UTF_8), token);
+            } else if (roll < 70) {
+                get("GET /dashboard/user/{id}", "/dashboard/user/" + userId, token);
+            } else if (roll < 90 && !accountIds.isEmpty()) {
+                createAndProcess(accountIds.get(random.nextInt(accountIds.size())), token, random);
+            } else if (accountIds.size() > 1) {
+                int from = random.nextInt(accountIds.size());
+                int to = (from + 1 + random.nextInt(accountIds.size() - 1)) % accountIds.size();
+                sendJson("POST /accounts/transfer", "POST", "/accounts/transfer", token, Map.of(
+                    "fromAccountId", accountIds.get(from), "toAccountId", accountIds.get(to),
+                    "amount", new BigDecimal("1.00")));
+            }
+        }
+    }
+
+    // Open the history and follow nextCursor for a few pages
+    private void history(long userId, String token, int pages) throws Exception {
+        String cursor = null;
+        for (int page = 0; page < pages; page++) {
+            String path = "/transactions/user/" + userId + "/cursor?size=20"
+                + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            HttpResponse<String> response = get("GET /transactions/user/{id}/cursor", path, token);
+            if (response == null) {
+                return;
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            if (!body.path("hasNext").asBoolean() || body.path("nextCursor").isNull()) {
+                return;
+            }
+            cursor = body.path("nextCursor").asText();
+        }
+    }
+
+    // Income keeps balances topped up for the transfers
+    private void createAndProcess(long accountId, String token, SplittableRandom random) throws Exception {
+        HttpResponse<String> created = sendJson("POST /transactions", "POST", "/transactions", token, Map.of(
+            "accountId", accountId,
+            "businessName", "Load Test Merchant",
+            "category", CATEGORIES[random.nextInt(CATEGORIES.length)],
+            "amount", BigDecimal.valueOf(500 + random.nextInt(5000), 2),
+            "transactionType", random.nextInt(4) == 0 ? "EXPENSE" : "INCOME",
+            "description", "Scripted dashboard traffic"));
+        if (created == null) {
+            return;
+        }
+        long transactionId = objectMapper.readTree(created.body()).path("id").asLong();
+        sendJson("PUT /transactions/{id}/status", "PUT", "/transactions/" + transactionId + "/status", token,
+            Map.of("status", "SUCCESS"));
+    }
+
+    private HttpResponse<String> get(String endpoint, String path, String token) {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).GET());
+    }
+
+    private HttpResponse<String> sendJson(String endpoint, String method, String path, String token,
+                                          Map<String, Object> body) throws IOException {
+        return send(endpoint, HttpRequest.newBuilder(uri(path))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+    }
+
+    private HttpResponse<String> postJson(String path, Map<String, Object> body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new RuntimeException(path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    // Times one request against its endpoint; null when it failed
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        long started = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Counted below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stats.latency.recordValue(Math.max(1, (System.nanoTime() - started) / 1000));
+        if (response == null || response.statusCode() >= 400) {
+            stats.errors.increment();
+            return null;
+        }
+        return response;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private Map<String, Object> report() {
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (String name : endpoints.keySet().stream().sorted().toList()) {
+            Endpoint endpoint = endpoints.get(name);
+            Histogram histogram = endpoint.latency.getIntervalHistogram();
+            long errors = endpoint.errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            byEndpoint.put(name, summary(histogram, errors));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", USERS);
+        report.put("concurrency", CONCURRENCY);
+        report.put("durationSeconds", DURATION_SECONDS);
+        report.put("sessions", sessions.sum());
+        report.put("total", summary(total, totalErrors));
+        report.put("endpoints", byEndpoint);
+        System.out.println("Dashboard traffic: " + report.get("total"));
+        byEndpoint.forEach((name, summary) -> System.out.println("  " + name + " " + summary));
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors) {
+        long requests = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : errors / (double) requests);
+        summary.put("throughputPerSecond", requests / (double) DURATION_SECONDS);
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    // Endpoints whose p99, throughput or error rate moved the wrong way by more than allowed
+    private List<String> compare(JsonNode baseline, Map<String, Object> report) {
+        JsonNode current = objectMapper.valueToTree(report);
+        List<String> regressions = new ArrayList<>();
+        current.path("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode before = baseline.path("endpoints").path(entry.getKey());
+            if (before.isMissingNode()) {
+                System.out.println("  new       " + entry.getKey());
+                return;
+            }
+            JsonNode after = entry.getValue();
+            double p99Before = before.path("p99Ms").asDouble();
+            double p99After = after.path("p99Ms").asDouble();
+            double throughputBefore = before.path("throughputPerSecond").asDouble();
+            double throughputAfter = after.path("throughputPerSecond").asDouble();
+            double errorRateBefore = before.path("errorRate").asDouble();
+            double errorRateAfter = after.path("errorRate").asDouble();
+
+            boolean regressed = (p99Before > 0 && (p99After - p99Before) / p99Before > MAX_REGRESSION)
+                || (throughputBefore > 0 && (throughputBefore - throughputAfter) / throughputBefore > MAX_REGRESSION)
+                || errorRateAfter - errorRateBefore > 0.01;
+            String line = String.format("%-9s %s: p99 %.1f -> %.1f ms, %.1f -> %.1f req/s, errors %.2f%% -> %.2f%%",
+                regressed ? "REGRESSED" : "ok", entry.getKey(), p99Before, p99After, throughputBefore,
+                throughputAfter, errorRateBefore * 100, errorRateAfter * 100);
+            System.out.println("  " + line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        });
+        return regressions;
+    }
+
+    private void writeReport(Map<String, Object> report) throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        System.out.println("Load test report written to " + REPORT.toAbsolutePath());
+    }
+
+    private record LoadUser(long id, String email) {
+    }
+
+    // Latency in microseconds, resized as needed so slow outliers are never clipped
+    private static class Endpoint {
+        private final Recorder latency = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        private void reset() {
+            latency.reset();
+            errors.reset();
+        }
+    }
+}
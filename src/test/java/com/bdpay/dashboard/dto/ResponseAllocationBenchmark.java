@@ -0,0 +1,168 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Bytes allocated per response body: the old path (entities copied into a HashMap per row, then
+// serialized) against the projection records serialized directly. Look at gc.alloc.rate.norm in
+// the results. No database is involved, so the entity hydration the projections also avoid is
+// not counted. Run with: main() from the IDE or
+// mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...ResponseAllocationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseAllocationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> transactions;
+    private List<TransactionView> transactionViews;
+    private List<Account> accounts;
+    private List<AccountView> accountViews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        accounts = new ArrayList<>();
+        AccountType[] types = AccountType.values();
+        for (int i = 0; i < 4; i++) {
+            Account account = new Account("Account " + i, types[i % types.length],
+                new BigDecimal("1520.75").add(BigDecimal.valueOf(i)), null);
+            account.setId((long) i + 1);
+            account.setPreviousBalance(new BigDecimal("1400.00"));
+            account.setSpendingLimit(new BigDecimal("500.00"));
+            account.setTotalLimit(new BigDecimal("2000.00"));
+            account.setCardNumber("4111 **** **** 111" + i);
+            account.setCardType("VISA");
+            account.setCreatedAt(now);
+            account.setUpdatedAt(now);
+            accounts.add(account);
+        }
+        accountViews = accounts.stream().map(AccountView::from).toList();
+
+        transactions = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Transaction transaction = new Transaction("Merchant " + i, "Groceries",
+                new BigDecimal("42.10").add(BigDecimal.valueOf(i)),
+                i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                TransactionStatus.SUCCESS, accounts.get(i % accounts.size()));
+            transaction.setId((long) i + 1);
+            transaction.setDescription("Card payment " + i);
+            transaction.setTransactionDate(now.minusDays(i));
+            transaction.setCreatedAt(now.minusDays(i));
+            transactions.add(transaction);
+        }
+        transactionViews = transactions.stream().map(TransactionView::from).toList();
+    }
+
+    // Previous transaction page: one HashMap per row from the loaded entities
+    @Benchmark
+    public byte[] legacyTransactionPage() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            rows.add(legacyTransactionResponse(transaction));
+        }
+        return objectMapper.writeValueAsBytes(Map.of("transactions", rows));
+    }
+
+    // Transaction page as selected by the JPQL constructor expression
+    @Benchmark
+    public byte[] projectedTransactionPage() throws Exception {
+        return objectMapper.writeValueAsBytes(Map.of("transactions", transactionViews));
+    }
+
+    // Previous account list
+    @Benchmark
+    public byte[] legacyAccountList() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            rows.add(legacyAccountResponse(account));
+        }
+        return objectMapper.writeValueAsBytes(rows);
+    }
+
+    // Account list as cached and returned now
+    @Benchmark
+    public byte[] projectedAccountList() throws Exception {
+        return objectMapper.writeValueAsBytes(accountViews);
+    }
+
+    // Copy of the removed ResponseMapper.mapTransactionToResponse
+    private static Map<String, Object> legacyTransactionResponse(Transaction transaction) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", transaction.getId());
+        response.put("businessName", transaction.getBusinessName());
+        response.put("category", transaction.getCategory());
+        response.put("amount", transaction.getAmount());
+        response.put("transactionType", transaction.getTransactionType().toString());
+        response.put("status", transaction.getStatus().toString());
+        response.put("description", transaction.getDescription());
+        response.put("transactionDate", transaction.getTransactionDate());
+        response.put("createdAt", transaction.getCreatedAt());
+        response.put("accountId", transaction.getAccount().getId());
+        return response;
+    }
+
+    // Copy of the removed ResponseMapper.mapAccountToResponse
+    private static Map<String, Object> legacyAccountResponse(Account account) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", account.getId());
+        response.put("accountName", account.getAccountName());
+        response.put("accountType", account.getAccountType().toString());
+        response.put("currentBalance", account.getCurrentBalance());
+        response.put("previousBalance", account.getPreviousBalance());
+        response.put("percentageChange", account.getPercentageChange());
+        if (account.getAccountType() == AccountType.WALLET) {
+            response.put("spendingLimit", account.getSpendingLimit());
+            response.put("totalLimit", account.getTotalLimit());
+            response.put("cardNumber", account.getCardNumber());
+            response.put("cardType", account.getCardType());
+        }
+        response.put("createdAt", account.getCreatedAt());
+        response.put("updatedAt", account.getUpdatedAt());
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ResponseAllocationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-response-allocation.json")
+            .build()).run();
+    }
+}
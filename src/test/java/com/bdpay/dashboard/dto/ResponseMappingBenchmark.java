@@ -0,0 +1,90 @@
+package com.bdpay.dashboard.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+
+// CPU cost of the response shaping done per chart, statistics and account request: filling the
+// money flow chart from a year of monthly totals, labelling spending rows, and the balance change
+// percentage on the entity and on the account view. Run with: main() from the IDE or
+// mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...ResponseMappingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private List<MonthlyTotal> monthlyTotals;
+    private List<CategorySpending> spending;
+    private Account account;
+    private AccountView accountView;
+
+    @Setup
+    public void setUp() {
+        monthlyTotals = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            monthlyTotals.add(new MonthlyTotal(month, TransactionType.INCOME, new BigDecimal("4200.00")));
+            monthlyTotals.add(new MonthlyTotal(month, TransactionType.EXPENSE, new BigDecimal("3150.45")));
+        }
+
+        spending = new ArrayList<>();
+        String[] categories = {"Groceries", "Transport", "Bills", "Entertainment", null};
+        for (int i = 0; i < categories.length; i++) {
+            spending.add(new CategorySpending(categories[i], new BigDecimal("120.50").multiply(BigDecimal.valueOf(i + 1))));
+        }
+
+        account = new Account("Main Wallet", AccountType.WALLET, new BigDecimal("1520.75"), null);
+        account.setPreviousBalance(new BigDecimal("1400.00"));
+        accountView = AccountView.from(account);
+    }
+
+    @Benchmark
+    public MoneyFlowChart processMonthlyDataForChart() {
+        return ResponseMapper.processMonthlyDataForChart(monthlyTotals);
+    }
+
+    @Benchmark
+    public List<CategorySpending> mapSpendingToStatistics() {
+        return ResponseMapper.mapSpendingToStatistics(spending);
+    }
+
+    @Benchmark
+    public Double accountPercentageChange() {
+        return account.getPercentageChange();
+    }
+
+    @Benchmark
+    public Double accountViewPercentageChange() {
+        return accountView.percentageChange();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ResponseMappingBenchmark.class.getSimpleName())
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-response-mapping.json")
+            .build()).run();
+    }
+}
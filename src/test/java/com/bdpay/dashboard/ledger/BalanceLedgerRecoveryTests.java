@@ -0,0 +1,171 @@
+package com.bdpay.dashboard.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bdpay.dashboard.config.SecondLevelCacheInvalidator;
+import com.bdpay.dashboard.ledger.BalanceWriteAheadLog.Change;
+import com.bdpay.dashboard.ledger.BalanceWriteAheadLog.Settlement;
+
+// Restarting the ledger on the log a previous run left behind, against a mocked database: a
+// settlement is applied exactly once if its transaction committed and never if it didn't
+class BalanceLedgerRecoveryTests {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final long TRANSACTION_ID = 7L;
+
+    @TempDir
+    Path walDirectory;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void crashAfterPreparedRecordDropsUncommittedSettlement() throws Exception {
+        settleAndCrash(startLedger(mockDatabase(false)));
+
+        JdbcTemplate database = mockDatabase(false);
+        startLedger(database);
+
+        verify(database, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void crashAfterDatabaseCommitAppliesSettlementOnce() throws Exception {
+        settleAndCrash(startLedger(mockDatabase(false)));
+
+        JdbcTemplate database = mockDatabase(true);
+        startLedger(database);
+
+        assertEquals(List.of(new Change(ACCOUNT_ID, new BigDecimal("150.00"), new BigDecimal("100.00"))),
+            recoveredBalances(database));
+    }
+
+    @Test
+    void committedSettlementIsReplayedFromItsOwnRecord() throws Exception {
+        BalanceLedger ledger = startLedger(mockDatabase(false));
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.settle(TRANSACTION_ID, ACCOUNT_ID, new BigDecimal("50.00"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(0, ledger.getStatistics().get("unresolvedSettlements"));
+
+        JdbcTemplate database = mockDatabase(true);
+        startLedger(database);
+
+        // The committed record already carries the balance: no status lookup, no second delta
+        verify(database, never()).queryForObject(anyString(), eq(Integer.class), any());
+        assertEquals(List.of(new Change(ACCOUNT_ID, new BigDecimal("150.00"), new BigDecimal("100.00"))),
+            recoveredBalances(database));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recoveryResolvesEachPreparedSettlement() throws Exception {
+        BalanceWriteAheadLog log = new BalanceWriteAheadLog(walDirectory, false);
+        log.open();
+        log.append(List.of(new Change(1L, new BigDecimal("100.00"), new BigDecimal("90.00"))));
+        // Rolled back (or never committed): still PENDING in the table
+        log.appendPrepared(new Settlement(7L, 1L, new BigDecimal("50.00")));
+        // Committed and applied: its balances were logged after the commit
+        log.appendPrepared(new Settlement(8L, 1L, new BigDecimal("20.00")));
+        log.appendCommitted(8L, List.of(new Change(1L, new BigDecimal("120.00"), new BigDecimal("100.00"))));
+        // Committed, but the process died before applying it
+        log.appendPrepared(new Settlement(9L, 2L, new BigDecimal("-5.00")));
+        log.close();
+
+        JdbcTemplate database = mock(JdbcTemplate.class);
+        when(database.queryForObject(anyString(), eq(Integer.class), eq(7L))).thenReturn(0);
+        when(database.queryForObject(anyString(), eq(Integer.class), eq(9L))).thenReturn(1);
+        when(database.query(anyString(), any(RowMapper.class), eq(2L))).thenReturn(List.of(new BigDecimal("40.00")));
+        BalanceLedger ledger = new BalanceLedger();
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", database);
+
+        Map<Long, Change> balances = ledger.recoverBalances(log.recover());
+
+        assertEquals(new BigDecimal("120.00"), balances.get(1L).currentBalance());
+        assertEquals(new BigDecimal("35.00"), balances.get(2L).currentBalance());
+        verify(database, never()).queryForObject(anyString(), eq(Integer.class), eq(8L));
+    }
+
+    // Settle inside an open transaction and stop before it completes, as a crash would
+    private void settleAndCrash(BalanceLedger ledger) {
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.settle(TRANSACTION_ID, ACCOUNT_ID, new BigDecimal("50.00"));
+        assertEquals(1, ledger.getStatistics().get("unresolvedSettlements"));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private BalanceLedger startLedger(JdbcTemplate database) throws Exception {
+        BalanceLedger ledger = new BalanceLedger();
+        ReflectionTestUtils.setField(ledger, "jdbcTemplate", database);
+        ReflectionTestUtils.setField(ledger, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(ledger, "secondLevelCacheInvalidator", mock(SecondLevelCacheInvalidator.class));
+        ReflectionTestUtils.setField(ledger, "lockStripes", 16);
+        ReflectionTestUtils.setField(ledger, "walDirectory", walDirectory.toString());
+        ReflectionTestUtils.setField(ledger, "fsync", false);
+        ReflectionTestUtils.setField(ledger, "flushBatchSize", 100);
+        ledger.init();
+        return ledger;
+    }
+
+    // Account 1 at 100.00 in the table; the settled transaction is SUCCESS or still PENDING
+    @SuppressWarnings("unchecked")
+    private JdbcTemplate mockDatabase(boolean settled) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("user_id")).thenReturn(1L);
+        when(row.getBigDecimal("current_balance")).thenReturn(new BigDecimal("100.00"));
+        when(row.getBigDecimal("previous_balance")).thenReturn(new BigDecimal("100.00"));
+
+        JdbcTemplate database = mock(JdbcTemplate.class);
+        when(database.query(anyString(), any(RowMapper.class), eq(ACCOUNT_ID))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(row, 0));
+        });
+        when(database.queryForObject(anyString(), eq(Integer.class), eq(TRANSACTION_ID))).thenReturn(settled ? 1 : 0);
+        return database;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Change> recoveredBalances(JdbcTemplate database) {
+        ArgumentCaptor<Collection<Change>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(database).batchUpdate(anyString(), written.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        return new ArrayList<>(written.getValue());
+    }
+}
@@ -0,0 +1,126 @@
+package com.bdpay.dashboard.security;
+
+import java.lang.reflect.Field;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+// Per-request authentication cost: the old path (a fresh parser and full signature check for
+// each of username, userId, validity and expiry) against one parse with a shared parser, and
+// against the verified-token cache. Run with: main() from the IDE or
+// mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...JwtAuthenticationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private JwtTokenUtil cachedTokenUtil;
+    private JwtTokenUtil uncachedTokenUtil;
+    private JwtAuthenticationFilter filter;
+    private Key signingKey;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        cachedTokenUtil = new JwtTokenUtil(10_000);
+        uncachedTokenUtil = new JwtTokenUtil(0);
+        token = cachedTokenUtil.generateToken("leo@bdpay.com", 1L);
+        signingKey = (Key) readField(cachedTokenUtil, "signingKey");
+
+        filter = new JwtAuthenticationFilter();
+        Field tokenUtilField = JwtAuthenticationFilter.class.getDeclaredField("jwtTokenUtil");
+        tokenUtilField.setAccessible(true);
+        tokenUtilField.set(filter, cachedTokenUtil);
+    }
+
+    // Token issued at login and registration
+    @Benchmark
+    public String generateToken() {
+        return cachedTokenUtil.generateToken("leo@bdpay.com", 1L);
+    }
+
+    // Validity check with a repeat token (verified-token cache)
+    @Benchmark
+    public Boolean isTokenValid() {
+        return cachedTokenUtil.isTokenValid(token);
+    }
+
+    // Previous filter behaviour: four independent parses, each building its own parser
+    @Benchmark
+    public Object legacyFourParses() {
+        String username = legacyClaims().getSubject();
+        Long userId = legacyClaims().get("userId", Long.class);
+        legacyClaims();
+        boolean valid = legacyClaims().getExpiration().after(new Date());
+        return valid ? username + userId : null;
+    }
+
+    // One parse and signature check with the shared parser (cache disabled)
+    @Benchmark
+    public Claims singleParse() {
+        return uncachedTokenUtil.parseVerifiedClaims(token);
+    }
+
+    // Repeat token answered from the verified-token cache
+    @Benchmark
+    public Claims cachedVerification() {
+        return cachedTokenUtil.parseVerifiedClaims(token);
+    }
+
+    // Whole filter invocation with a repeat token
+    @Benchmark
+    public Object filterPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/user/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return request.getAttribute("userId");
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+
+    private static Object readField(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtAuthenticationBenchmark.class.getSimpleName())
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-jwt-authentication.json")
+            .build()).run();
+    }
+}
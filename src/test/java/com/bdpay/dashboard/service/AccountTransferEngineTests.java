@@ -0,0 +1,131 @@
+package com.bdpay.dashboard.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.User;
+
+// Concurrent transfers between one user's accounts must neither lose updates nor create money.
+// Boots the app against the configured database, so it is excluded from the normal build; run with
+//   mvn test -Ploadtest -Dtest=AccountTransferEngineTests
+@SpringBootTest
+@Tag("loadtest")
+class AccountTransferEngineTests {
+
+    private static final int TRANSFERS = 10_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountTransferEngine accountTransferEngine;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userService.registerUser("Stress", "Test",
+            "transfer-" + UUID.randomUUID() + "@bdpay.com", "password123");
+        userId = user.getId();
+        accountService.initializeDefaultAccounts(userId);
+        accountTransferEngine.resetStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(userId);
+    }
+
+    @Test
+    void concurrentTransfersLoseNoUpdates() throws InterruptedException {
+        List<Account> accounts = accountService.getUserAccounts(userId);
+        Map<Long, BigDecimal> initialBalances = new HashMap<>();
+        Map<Long, LongAdder> expectedDeltaCents = new ConcurrentHashMap<>();
+        for (Account account : accounts) {
+            initialBalances.put(account.getId(), account.getCurrentBalance());
+            expectedDeltaCents.put(account.getId(), new LongAdder());
+        }
+        List<Long> accountIds = new ArrayList<>(initialBalances.keySet());
+
+        LongAdder succeeded = new LongAdder();
+        LongAdder insufficientBalance = new LongAdder();
+        List<Throwable> unexpectedErrors = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long from = accountIds.get(random.nextInt(accountIds.size()));
+                Long to = accountIds.get(random.nextInt(accountIds.size()));
+                while (to.equals(from)) {
+                    to = accountIds.get(random.nextInt(accountIds.size()));
+                }
+                long cents = 1 + random.nextInt(500);
+                try {
+                    accountTransferEngine.transfer(from, to, BigDecimal.valueOf(cents, 2));
+                    succeeded.increment();
+                    expectedDeltaCents.get(from).add(-cents);
+                    expectedDeltaCents.get(to).add(cents);
+                } catch (RuntimeException e) {
+                    if ("Insufficient balance for transfer".equals(e.getMessage())) {
+                        insufficientBalance.increment();
+                    } else {
+                        synchronized (unexpectedErrors) {
+                            unexpectedErrors.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES), "transfers did not finish");
+
+        assertTrue(unexpectedErrors.isEmpty(), "unexpected transfer failures: " + unexpectedErrors);
+
+        BigDecimal initialTotal = BigDecimal.ZERO;
+        BigDecimal finalTotal = BigDecimal.ZERO;
+        for (Account account : accountService.getUserAccounts(userId)) {
+            BigDecimal expected = initialBalances.get(account.getId())
+                .add(BigDecimal.valueOf(expectedDeltaCents.get(account.getId()).sum(), 2));
+            assertEquals(0, expected.compareTo(account.getCurrentBalance()),
+                "lost update on account " + account.getId() + ": expected " + expected
+                + " but was " + account.getCurrentBalance());
+            initialTotal = initialTotal.add(initialBalances.get(account.getId()));
+            finalTotal = finalTotal.add(account.getCurrentBalance());
+        }
+        assertEquals(0, initialTotal.compareTo(finalTotal), "money was created or destroyed");
+
+        // The engine counted every attempt, and only the ones that actually failed as failures
+        Map<String, Object> statistics = accountTransferEngine.getStatistics();
+        assertEquals(succeeded.sum(), statistics.get("completedTransfers"), "completed transfers: " + statistics);
+        assertEquals(insufficientBalance.sum(), statistics.get("failedTransfers"), "failed transfers: " + statistics);
+        assertTrue(succeeded.sum() > 0, "no transfer succeeded: " + statistics);
+        assertTrue((Long) statistics.get("pessimisticTransfers") <= TRANSFERS, "pessimistic transfers: " + statistics);
+        assertTrue((Double) statistics.get("averageLatencyMs") > 0, "average latency: " + statistics);
+    }
+}
@@ -0,0 +1,215 @@
+package com.bdpay.dashboard.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bdpay.dashboard.dto.AccountView;
+import com.bdpay.dashboard.dto.TransactionView;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.event.AccountsChangedEvent;
+import com.bdpay.dashboard.event.TransactionChangedEvent;
+import com.bdpay.dashboard.event.TransactionRemovedEvent;
+import com.bdpay.dashboard.event.TransactionsImportedEvent;
+import com.bdpay.dashboard.service.LiveUpdateHub.BalanceChange;
+import com.bdpay.dashboard.service.LiveUpdateHub.TooManyConnectionsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// LiveUpdateHub against a mocked AccountService, with emitters that record what they are sent
+class LiveUpdateHubTests {
+
+    private static final Long USER_ID = 1L;
+    private static final int BUFFER_SIZE = 4;
+
+    private AccountService accountService;
+    private SimpleMeterRegistry meterRegistry;
+    private LiveUpdateHub hub;
+
+    // Sends block here while a test holds it closed, like a client that stopped reading
+    private volatile CountDownLatch sendGate = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() {
+        accountService = mock(AccountService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new LiveUpdateHub() {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        ReflectionTestUtils.setField(hub, "accountService", accountService);
+        ReflectionTestUtils.setField(hub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hub, "maxConnections", 100);
+        ReflectionTestUtils.setField(hub, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(hub, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(hub, "heartbeatIntervalMs", 60_000L);
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendGate.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void firstEventIsAccountSnapshot() throws InterruptedException {
+        List<AccountView> accounts = List.of(account(10L, "100.00"), account(11L, "50.00"));
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(accounts);
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(USER_ID);
+
+        SentEvent snapshot = emitter.next();
+        assertEquals("accounts", snapshot.name());
+        assertEquals(accounts, snapshot.data());
+    }
+
+    @Test
+    void balanceRefreshSendsOnlyChangedAccounts() throws InterruptedException {
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(
+            List.of(account(10L, "100.00"), account(11L, "50.00")),
+            List.of(account(10L, "75.00"), account(11L, "50.00")));
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(USER_ID);
+        assertEquals("accounts", emitter.next().name());
+
+        hub.onAccountsChanged(new AccountsChangedEvent(USER_ID, "transfer"));
+
+        SentEvent balances = emitter.next();
+        assertEquals("balances", balances.name());
+        assertEquals(List.of(new BalanceChange(10L, new BigDecimal("75.00"), new BigDecimal("-25.00"))),
+            balances.data());
+    }
+
+    @Test
+    void transactionEventsAreForwarded() throws InterruptedException {
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(List.of(account(10L, "100.00")));
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(USER_ID);
+        assertEquals("accounts", emitter.next().name());
+
+        TransactionView transaction = transaction(42L);
+        hub.onTransactionChanged(new TransactionChangedEvent(USER_ID, transaction));
+        hub.onTransactionRemoved(new TransactionRemovedEvent(USER_ID, 42L));
+        // Another user's changes never reach this stream
+        hub.onTransactionChanged(new TransactionChangedEvent(2L, transaction(43L)));
+
+        SentEvent changed = emitter.next();
+        assertEquals("transaction", changed.name());
+        assertEquals(transaction, changed.data());
+        SentEvent removed = emitter.next();
+        assertEquals("transaction-removed", removed.name());
+        assertEquals(Map.of("id", 42L), removed.data());
+        assertTrue(emitter.sent.poll(200, TimeUnit.MILLISECONDS) == null, "unexpected event for another user");
+    }
+
+    @Test
+    void importedChunkSendsOneResync() throws InterruptedException {
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(List.of(account(10L, "100.00")));
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(USER_ID);
+        assertEquals("accounts", emitter.next().name());
+
+        hub.onTransactionsImported(new TransactionsImportedEvent(USER_ID, 1000));
+
+        assertEquals("resync", emitter.next().name());
+        assertTrue(emitter.sent.poll(200, TimeUnit.MILLISECONDS) == null, "import sent more than one event");
+    }
+
+    @Test
+    void slowClientIsToldToResync() throws InterruptedException {
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(List.of(account(10L, "100.00")));
+        sendGate = new CountDownLatch(1);
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(USER_ID);
+        // The snapshot is stuck in the socket; everything after it has to queue
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS), "snapshot was never sent");
+        for (long id = 1; id <= BUFFER_SIZE * 2 + 2; id++) {
+            hub.onTransactionChanged(new TransactionChangedEvent(USER_ID, transaction(id)));
+        }
+        sendGate.countDown();
+
+        assertEquals("accounts", emitter.next().name());
+        assertEquals("resync", emitter.next().name());
+        SentEvent latest = emitter.next();
+        assertEquals("transaction", latest.name());
+        assertEquals(transaction(BUFFER_SIZE * 2 + 2L), latest.data());
+        assertTrue(meterRegistry.counter("live.events.dropped").count() > 0, "dropped events were not counted");
+    }
+
+    @Test
+    void rejectsStreamsBeyondPerUserLimit() {
+        when(accountService.getCurrentAccountViews(USER_ID)).thenReturn(List.of());
+        hub.subscribe(USER_ID);
+        hub.subscribe(USER_ID);
+
+        assertThrows(TooManyConnectionsException.class, () -> hub.subscribe(USER_ID));
+        assertEquals(1.0, meterRegistry.counter("live.connections.rejected").count());
+    }
+
+    private static AccountView account(Long id, String balance) {
+        return new AccountView(id, "Account " + id, AccountType.SAVINGS, new BigDecimal(balance),
+            BigDecimal.ZERO, null, null, null, null, null, null);
+    }
+
+    private static TransactionView transaction(Long id) {
+        LocalDateTime date = LocalDateTime.of(2026, 1, 15, 12, 0);
+        return new TransactionView(id, "Gym", "Payment", new BigDecimal("30.00"), TransactionType.EXPENSE,
+            TransactionStatus.PENDING, null, date, date, 10L);
+    }
+
+    private record SentEvent(String name, Object data) {}
+
+    // Captures each event's name and payload instead of writing to a response
+    private class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<SentEvent> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            try {
+                sendGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            String name = null;
+            Object data = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text && text.startsWith("event:")) {
+                    name = text.substring("event:".length(), text.indexOf('\n'));
+                } else if (!(part.getData() instanceof String)) {
+                    data = part.getData();
+                }
+            }
+            sent.add(new SentEvent(name, data));
+        }
+
+        private SentEvent next() throws InterruptedException {
+            SentEvent event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event sent");
+            return event;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bdpay.dashboard.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bdpay.dashboard.config.TransactionPartitionManager;
+import com.bdpay.dashboard.dto.MonthlyTotal;
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.entity.User;
+
+// Archiving a month's partition must neither show up as rollup drift nor let a rebuild wipe that
+// month's totals. Needs the partitioned transactions table and archives a partition far in the
+// past, so it is excluded from the normal build; run with
+//   mvn test -Ploadtest -Dtest=TransactionRollupArchiveTests
+@SpringBootTest
+@Tag("loadtest")
+class TransactionRollupArchiveTests {
+
+    // Old enough that no real data shares its partition or anything before it
+    private static final YearMonth ARCHIVED_MONTH = YearMonth.of(1990, 1);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userService.registerUser("Archive", "Test",
+            "archive-" + UUID.randomUUID() + "@bdpay.com", "password123");
+        userId = user.getId();
+        accountService.initializeDefaultAccounts(userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The detached partition keeps its foreign keys, so it goes before the user's accounts
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transactions_archive."
+            + String.format("transactions_y%04dm%02d", ARCHIVED_MONTH.getYear(), ARCHIVED_MONTH.getMonthValue()));
+        userService.deleteUser(userId);
+    }
+
+    @Test
+    void archivedMonthIsNeitherDriftNorRebuiltAway() {
+        Account account = accountService.getAccountByUserAndType(userId, AccountType.BUSINESS).orElseThrow();
+        transactionPartitionManager.ensurePartitions(ARCHIVED_MONTH, ARCHIVED_MONTH);
+        Transaction transaction = transactionService.createTransaction(account.getId(), "Gym", "Payment",
+            new BigDecimal("45.00"), TransactionType.EXPENSE, "Back-dated membership");
+        // Back-date it into the old month; the row moves to that month's partition
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE id = ?",
+            ARCHIVED_MONTH.atDay(15).atTime(12, 0), transaction.getId());
+        transactionService.processTransaction(transaction.getId(), TransactionStatus.SUCCESS);
+        assertTrue(transactionRollupService.findRollupDiscrepancies(userId).isEmpty());
+
+        transactionPartitionManager.archivePartitionsBefore(ARCHIVED_MONTH.plusMonths(1));
+        assertTrue(transactionPartitionManager.archiveCutoff().filter(ARCHIVED_MONTH::isBefore).isPresent(),
+            "partition was not archived");
+
+        List<String> discrepancies = transactionRollupService.findRollupDiscrepancies(userId);
+        assertTrue(discrepancies.isEmpty(), "archived month reported as drift: " + discrepancies);
+
+        transactionRollupService.rebuildUserRollups(userId);
+        List<MonthlyTotal> totals = transactionService.getMonthlyTransactionData(userId, ARCHIVED_MONTH.getYear());
+        assertEquals(1, totals.size(), "rebuild dropped the archived month's rollup");
+        assertEquals(0, new BigDecimal("45.00").compareTo(totals.get(0).total()));
+        assertTrue(transactionRollupService.findRollupDiscrepancies(userId).isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.bdpay.dashboard.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bdpay.dashboard.entity.Account;
+import com.bdpay.dashboard.entity.Account.AccountType;
+import com.bdpay.dashboard.entity.Transaction;
+import com.bdpay.dashboard.entity.Transaction.TransactionStatus;
+import com.bdpay.dashboard.entity.Transaction.TransactionType;
+import com.bdpay.dashboard.entity.User;
+
+// Many concurrent requests settling the same pending transaction must move the balance once.
+// Boots the app against the configured database, so it is excluded from the normal build; run with
+//   mvn test -Ploadtest -Dtest=TransactionSettlementTests
+@SpringBootTest
+@Tag("loadtest")
+class TransactionSettlementTests {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userService.registerUser("Settle", "Test",
+            "settle-" + UUID.randomUUID() + "@bdpay.com", "password123");
+        userId = user.getId();
+        accountService.initializeDefaultAccounts(userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(userId);
+    }
+
+    @Test
+    void concurrentSettlesApplyTheAmountOnce() throws InterruptedException {
+        Account account = accountService.getAccountByUserAndType(userId, AccountType.BUSINESS).orElseThrow();
+        BigDecimal initialBalance = account.getCurrentBalance();
+        Transaction pending = transactionService.createTransaction(account.getId(), "Gym", "Payment",
+            new BigDecimal("300.00"), TransactionType.EXPENSE, "Monthly gym membership");
+
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder settled = new LongAdder();
+        LongAdder refused = new LongAdder();
+        List<Throwable> unexpectedErrors = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transactionService.processTransaction(pending.getId(), TransactionStatus.SUCCESS);
+                    settled.increment();
+                } catch (RuntimeException e) {
+                    if ("Only pending transactions can be processed".equals(e.getMessage())) {
+                        refused.increment();
+                    } else {
+                        synchronized (unexpectedErrors) {
+                            unexpectedErrors.add(e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "settles did not finish");
+
+        assertTrue(unexpectedErrors.isEmpty(), "unexpected settle failures: " + unexpectedErrors);
+        assertEquals(1, settled.sum(), "settled more than once");
+        assertEquals(CALLERS - 1, refused.sum());
+
+        BigDecimal finalBalance = accountService.getAccountById(account.getId()).orElseThrow().getCurrentBalance();
+        assertEquals(0, initialBalance.subtract(new BigDecimal("300.00")).compareTo(finalBalance),
+            "expected one debit of 300.00 from " + initialBalance + " but balance is " + finalBalance);
+    }
+}